@@ -1,5 +1,6 @@
 package dev.twme.worldeditdisplay;
 
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import com.github.retrooper.packetevents.PacketEvents;
@@ -10,15 +11,22 @@ import dev.twme.worldeditdisplay.command.PlayerSettingsCommandTabCompleter;
 import dev.twme.worldeditdisplay.command.ReloadCommand;
 import dev.twme.worldeditdisplay.config.PlayerSettingsManager;
 import dev.twme.worldeditdisplay.config.RenderSettings;
+import dev.twme.worldeditdisplay.display.DisplayItemCache;
 import dev.twme.worldeditdisplay.display.RenderManager;
+import dev.twme.worldeditdisplay.event.CUIMessageProcessor;
 import dev.twme.worldeditdisplay.lang.LanguageManager;
 import dev.twme.worldeditdisplay.listener.InboundPacketListener;
 import dev.twme.worldeditdisplay.listener.OutboundPacketListener;
+import dev.twme.worldeditdisplay.listener.PermissionRefreshListener;
 import dev.twme.worldeditdisplay.listener.PlayerJoinListener;
 import dev.twme.worldeditdisplay.listener.PlayerLocaleChangeListener;
+import dev.twme.worldeditdisplay.listener.PlayerMoveListener;
 import dev.twme.worldeditdisplay.listener.PlayerQuitListener;
-import dev.twme.worldeditdisplay.player.PlayerManager;
+import dev.twme.worldeditdisplay.player.PermissionCache;
+import dev.twme.worldeditdisplay.player.PlayerData;
+import dev.twme.worldeditdisplay.trace.CUITraceRecorder;
 import dev.twme.worldeditdisplay.util.MessageUtil;
+import dev.twme.worldeditdisplay.util.PlatformScheduler;
 import io.github.retrooper.packetevents.factory.spigot.SpigotPacketEventsBuilder;
 import me.tofaa.entitylib.APIConfig;
 import me.tofaa.entitylib.EntityLib;
@@ -26,11 +34,15 @@ import me.tofaa.entitylib.spigot.SpigotEntityLibPlatform;
 
 public final class WorldEditDisplay extends JavaPlugin {
     private static WorldEditDisplay plugin;
-    private PlayerManager playerDataManager;
     private RenderManager renderManager;
     private RenderSettings renderSettings;
     private PlayerSettingsManager playerSettingsManager;
     private LanguageManager languageManager;
+    private DisplayItemCache displayItemCache;
+    private CUIMessageProcessor cuiMessageProcessor;
+    private PlatformScheduler platformScheduler;
+    private PermissionCache permissionCache;
+    private CUITraceRecorder traceRecorder;
 
     @Override
     public void onLoad() {
@@ -49,13 +61,25 @@ public final class WorldEditDisplay extends JavaPlugin {
 
         PacketEvents.getAPI().init();
 
+        // Paper main thread or Folia region/entity schedulers
+        this.platformScheduler = new PlatformScheduler(this);
+
+        // CUI messages are processed off the network threads
+        this.cuiMessageProcessor = new CUIMessageProcessor(this);
+
+        // Records CUI traffic on demand (/wedisplay trace)
+        this.traceRecorder = new CUITraceRecorder(this);
+
         PacketEvents.getAPI().getEventManager().registerListener(new InboundPacketListener(), PacketListenerPriority.NORMAL);
         PacketEvents.getAPI().getEventManager().registerListener(new OutboundPacketListener(), PacketListenerPriority.NORMAL);
 
         SpigotEntityLibPlatform platform = new SpigotEntityLibPlatform(this);
         APIConfig settings = new APIConfig(PacketEvents.getAPI())
-                .tickTickables()
                 .usePlatformLogger();
+        // Display lines are never ticked; EntityLib's ticker relies on the Bukkit scheduler, which Folia lacks
+        if (!PlatformScheduler.isFolia()) {
+            settings.tickTickables();
+        }
         EntityLib.init(platform, settings);
         
         // Load default configuration
@@ -76,12 +100,27 @@ public final class WorldEditDisplay extends JavaPlugin {
         this.playerSettingsManager = new PlayerSettingsManager(this);
         
         // Initialize managers
-        this.playerDataManager = new PlayerManager();
+        this.displayItemCache = new DisplayItemCache();
         this.renderManager = new RenderManager(this);
+        
+        // Coalesce selection changes and send render packets within a per-tick budget
+        renderManager.getRenderScheduler().start();
+        
+        // Keep worldeditdisplay.use cached for the outbound CUI listener
+        this.permissionCache = new PermissionCache(this);
+        permissionCache.start();
+        for (Player player : getServer().getOnlinePlayers()) {
+            platformScheduler.runForPlayer(player, () -> {
+                PlayerData.getPlayerData(player).captureRenderAnchor();
+                permissionCache.refresh(player);
+            }, 0L);
+        }
 
         getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerQuitListener(this), this);
         getServer().getPluginManager().registerEvents(new PlayerLocaleChangeListener(this), this);
+        getServer().getPluginManager().registerEvents(new PermissionRefreshListener(this), this);
+        getServer().getPluginManager().registerEvents(new PlayerMoveListener(this), this);
         
         // Register commands
         getCommand("wedisplayreload").setExecutor(new ReloadCommand(this));
@@ -93,6 +132,20 @@ public final class WorldEditDisplay extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (permissionCache != null) {
+            permissionCache.shutdown();
+        }
+        
+        // Flush and close open CUI traces
+        if (traceRecorder != null) {
+            traceRecorder.shutdown();
+        }
+        
+        // Finish pending CUI tasks before cleaning up
+        if (cuiMessageProcessor != null) {
+            cuiMessageProcessor.shutdown();
+        }
+        
         // Clean up all renders
         if (renderManager != null) {
             renderManager.shutdown();
@@ -105,8 +158,12 @@ public final class WorldEditDisplay extends JavaPlugin {
         return plugin;
     }
 
-    public PlayerManager getPlayerDataManager() {
-        return playerDataManager;
+    public PlatformScheduler getPlatformScheduler() {
+        return platformScheduler;
+    }
+    
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
     }
     
     public RenderManager getRenderManager() {
@@ -124,4 +181,16 @@ public final class WorldEditDisplay extends JavaPlugin {
     public LanguageManager getLanguageManager() {
         return languageManager;
     }
+    
+    public DisplayItemCache getDisplayItemCache() {
+        return displayItemCache;
+    }
+    
+    public CUIMessageProcessor getCUIMessageProcessor() {
+        return cuiMessageProcessor;
+    }
+    
+    public CUITraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
 }
@@ -1,5 +1,9 @@
 package dev.twme.worldeditdisplay.command;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.logging.Level;
+
 import org.bukkit.Material;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -10,6 +14,7 @@ import org.jetbrains.annotations.NotNull;
 import dev.twme.worldeditdisplay.WorldEditDisplay;
 import dev.twme.worldeditdisplay.config.PlayerRenderSettings;
 import dev.twme.worldeditdisplay.player.PlayerData;
+import dev.twme.worldeditdisplay.trace.CUITraceRecorder;
 import dev.twme.worldeditdisplay.util.MessageUtil;
 
 /**
@@ -20,6 +25,8 @@ import dev.twme.worldeditdisplay.util.MessageUtil;
  * /wedisplay reset <renderer> [setting] - 重置為伺服器預設
  * /wedisplay show [renderer] - 顯示當前設定
  * /wedisplay reloadplayer - 重載自己的設定
+ * /wedisplay status - 顯示渲染品質與排程狀態
+ * /wedisplay trace <start|stop> <player> - 錄製玩家的 CUI 訊息
  */
 public class PlayerSettingsCommand implements CommandExecutor {
     
@@ -67,6 +74,10 @@ public class PlayerSettingsCommand implements CommandExecutor {
                 return handleLanguage(player, args);
             case "toggle":
                 return handleToggle(player);
+            case "status":
+                return handleStatus(player);
+            case "trace":
+                return handleTrace(player, args);
             default:
                 sendHelp(player);
                 return true;
@@ -114,7 +125,8 @@ public class PlayerSettingsCommand implements CommandExecutor {
             MessageUtil.sendTranslated(player, "command.wedisplay.set.success_hint");
             
             // 重新渲染玩家的選區
-            plugin.getRenderManager().refreshPlayerRenderer(player);
+            plugin.getCUIMessageProcessor().execute(player.getUniqueId(),
+                    () -> plugin.getRenderManager().refreshPlayerRenderer(player));
         } else {
             MessageUtil.sendTranslated(player, "command.wedisplay.set.failed");
             MessageUtil.sendTranslated(player, "command.wedisplay.set.failed_hint");
@@ -158,7 +170,8 @@ public class PlayerSettingsCommand implements CommandExecutor {
         }
         
         // 重新渲染玩家的選區
-        plugin.getRenderManager().refreshPlayerRenderer(player);
+        plugin.getCUIMessageProcessor().execute(player.getUniqueId(),
+                () -> plugin.getRenderManager().refreshPlayerRenderer(player));
         
         return true;
     }
@@ -202,7 +215,8 @@ public class PlayerSettingsCommand implements CommandExecutor {
         MessageUtil.sendTranslated(player, "command.wedisplay.reload.success");
         
         // 重新渲染玩家的選區
-        plugin.getRenderManager().refreshPlayerRenderer(player);
+        plugin.getCUIMessageProcessor().execute(player.getUniqueId(),
+                () -> plugin.getRenderManager().refreshPlayerRenderer(player));
         
         return true;
     }
@@ -258,12 +272,95 @@ public class PlayerSettingsCommand implements CommandExecutor {
         } else {
             MessageUtil.sendTranslated(player, "command.wedisplay.toggle.disabled");
             // 關閉渲染時清除所有現有渲染
-            plugin.getRenderManager().clearRender(player.getUniqueId());
+            plugin.getCUIMessageProcessor().execute(player.getUniqueId(),
+                    () -> plugin.getRenderManager().clearRender(player.getUniqueId()));
+        }
+        
+        return true;
+    }
+    
+    /**
+     * 處理 status 命令
+     */
+    private boolean handleStatus(Player player) {
+        if (!player.hasPermission("worldeditdisplay.status")) {
+            MessageUtil.sendTranslated(player, "general.no_permission");
+            return true;
         }
         
+        var renderManager = plugin.getRenderManager();
+        var qualityMonitor = renderManager.getQualityMonitor();
+        
+        MessageUtil.sendTranslated(player, "command.wedisplay.status.title");
+        MessageUtil.sendTranslated(player, "command.wedisplay.status.quality", qualityMonitor.getLevel());
+        MessageUtil.sendTranslated(player, "command.wedisplay.status.mspt",
+                String.format("%.1f", qualityMonitor.getLastMspt()));
+        MessageUtil.sendTranslated(player, "command.wedisplay.status.active_renders", renderManager.getActiveRenderCount());
+        MessageUtil.sendTranslated(player, "command.wedisplay.status.scheduled", renderManager.getRenderScheduler().getScheduledCount());
+        MessageUtil.sendTranslated(player, "command.wedisplay.status.rate_limited", renderManager.getRateLimitedCount());
+        
+        var backpressure = renderManager.getChannelBackpressure();
+        MessageUtil.sendTranslated(player, "command.wedisplay.status.backpressure", backpressure.getPausedCount());
+        MessageUtil.sendTranslated(player, "command.wedisplay.status.queued_bytes",
+                backpressure.getQueuedBytes(player.getUniqueId()), backpressure.getMaxQueuedBytes());
+        
+        var cuiStats = plugin.getCUIMessageProcessor().getStats();
+        MessageUtil.sendTranslated(player, "command.wedisplay.status.cui_messages",
+                cuiStats.getHandled(), cuiStats.getRejected());
         return true;
     }
     
+    /**
+     * 處理 trace 命令
+     */
+    private boolean handleTrace(Player player, String[] args) {
+        if (!player.hasPermission("worldeditdisplay.trace")) {
+            MessageUtil.sendTranslated(player, "general.no_permission");
+            return true;
+        }
+        
+        if (args.length < 3) {
+            MessageUtil.sendTranslated(player, "command.wedisplay.trace.usage");
+            return true;
+        }
+        
+        String action = args[1].toLowerCase();
+        Player target = plugin.getServer().getPlayerExact(args[2]);
+        if (target == null) {
+            MessageUtil.sendTranslated(player, "command.wedisplay.trace.player_not_found", args[2]);
+            return true;
+        }
+        
+        CUITraceRecorder recorder = plugin.getTraceRecorder();
+        switch (action) {
+            case "start":
+                try {
+                    Path file = recorder.start(target);
+                    if (file == null) {
+                        MessageUtil.sendTranslated(player, "command.wedisplay.trace.already_tracing", target.getName());
+                    } else {
+                        MessageUtil.sendTranslated(player, "command.wedisplay.trace.started", target.getName(), file.getFileName());
+                    }
+                } catch (IOException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to start CUI trace for " + target.getName(), e);
+                    MessageUtil.sendTranslated(player, "command.wedisplay.trace.failed", target.getName());
+                }
+                return true;
+            case "stop":
+                CUITraceRecorder.TraceSession session = recorder.stop(target.getUniqueId());
+                if (session == null) {
+                    MessageUtil.sendTranslated(player, "command.wedisplay.trace.not_tracing", target.getName());
+                } else {
+                    MessageUtil.sendTranslated(player, "command.wedisplay.trace.stopped", target.getName(),
+                            session.getFile().getFileName(), session.getRecorded(), session.getDropped());
+                }
+                return true;
+            default:
+                MessageUtil.sendTranslated(player, "command.wedisplay.trace.usage");
+                return true;
+        }
+    }
+    
     /**
      * 顯示特定渲染器的設定
      */
@@ -351,6 +448,14 @@ public class PlayerSettingsCommand implements CommandExecutor {
         MessageUtil.sendTranslated(player, "command.wedisplay.help.lang_desc");
         MessageUtil.sendTranslated(player, "command.wedisplay.help.toggle");
         MessageUtil.sendTranslated(player, "command.wedisplay.help.toggle_desc");
+        if (player.hasPermission("worldeditdisplay.status")) {
+            MessageUtil.sendTranslated(player, "command.wedisplay.help.status");
+            MessageUtil.sendTranslated(player, "command.wedisplay.help.status_desc");
+        }
+        if (player.hasPermission("worldeditdisplay.trace")) {
+            MessageUtil.sendTranslated(player, "command.wedisplay.help.trace");
+            MessageUtil.sendTranslated(player, "command.wedisplay.help.trace_desc");
+        }
     }
     
     /**
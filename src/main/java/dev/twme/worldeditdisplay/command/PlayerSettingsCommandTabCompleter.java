@@ -21,7 +21,8 @@ import dev.twme.worldeditdisplay.WorldEditDisplay;
 public class PlayerSettingsCommandTabCompleter implements TabCompleter {
     
     private final WorldEditDisplay plugin;
-    private static final List<String> SUB_COMMANDS = Arrays.asList("set", "reset", "show", "reloadplayer", "lang", "language", "toggle");
+    private static final List<String> SUB_COMMANDS = Arrays.asList("set", "reset", "show", "reloadplayer", "lang", "language", "toggle", "status", "trace");
+    private static final List<String> TRACE_ACTIONS = Arrays.asList("start", "stop");
     private static final List<String> RENDERERS = Arrays.asList("cuboid", "cylinder", "ellipsoid", "polygon", "polyhedron");
     
     public PlayerSettingsCommandTabCompleter(WorldEditDisplay plugin) {
@@ -58,6 +59,11 @@ public class PlayerSettingsCommandTabCompleter implements TabCompleter {
                 completions = completions.stream()
                     .filter(lang -> lang.startsWith(args[1].toLowerCase()))
                     .collect(Collectors.toList());
+            } else if (subCommand.equals("trace")) {
+                // 第二個參數：開始或停止錄製
+                completions = TRACE_ACTIONS.stream()
+                    .filter(action -> action.startsWith(args[1].toLowerCase()))
+                    .collect(Collectors.toList());
             }
             
         } else if (args.length == 3) {
@@ -69,6 +75,12 @@ public class PlayerSettingsCommandTabCompleter implements TabCompleter {
                 completions = getSettingKeys(renderer).stream()
                     .filter(key -> key.startsWith(args[2].toLowerCase()))
                     .collect(Collectors.toList());
+            } else if (subCommand.equals("trace")) {
+                // 第三個參數：玩家名稱
+                completions = plugin.getServer().getOnlinePlayers().stream()
+                    .map(Player::getName)
+                    .filter(name -> name.toLowerCase().startsWith(args[2].toLowerCase()))
+                    .collect(Collectors.toList());
             }
             
         } else if (args.length == 4) {
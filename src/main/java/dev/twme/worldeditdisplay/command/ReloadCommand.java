@@ -32,6 +32,8 @@ public class ReloadCommand implements CommandExecutor {
         try {
             // 重新載入配置
             plugin.getRenderSettings().reload();
+            // 清除物品快取(發射器的 metadata 範本會在下一次渲染時重建)
+            plugin.getDisplayItemCache().clear();
             // 重新載入語言檔案
             plugin.getLanguageManager().reload();
             MessageUtil.sendTranslated(sender, "general.reload_success");
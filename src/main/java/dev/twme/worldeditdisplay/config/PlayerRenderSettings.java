@@ -16,7 +16,7 @@ import dev.twme.worldeditdisplay.WorldEditDisplay;
  * - 材質可以自由設定
  * - 數值參數不能超過伺服器設定的上限
  */
-public class PlayerRenderSettings {
+public final class PlayerRenderSettings {
     
     private final WorldEditDisplay plugin;
     private final UUID playerUUID;
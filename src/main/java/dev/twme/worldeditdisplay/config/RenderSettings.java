@@ -1,6 +1,9 @@
 package dev.twme.worldeditdisplay.config;
 
+import java.util.List;
+
 import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.display.DisplayBackend;
 import org.bukkit.Material;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -91,6 +94,19 @@ public class RenderSettings {
     private float polyhedronVertexSize;
     private float polyhedronVertexThickness;
     
+    // === 效能設定 ===
+    private boolean doubleBuffered;
+    private DisplayBackend displayBackend;
+    private long renderQuietPeriodMillis;
+    private int renderBudgetPerTick;
+    private boolean adaptiveQualityEnabled;
+    private List<Double> adaptiveQualityDegradeMspt;
+    private double adaptiveQualityRecoverMarginMspt;
+    private int adaptiveQualityCheckIntervalTicks;
+    private int permissionRefreshIntervalTicks;
+    private double renderRateLimitPerSecond;
+    private int renderRateLimitBurst;
+    
     public RenderSettings(WorldEditDisplay plugin) {
         this.plugin = plugin;
         loadDefaults();
@@ -175,6 +191,19 @@ public class RenderSettings {
         polyhedronLineThickness = 0.03f;
         polyhedronVertexSize = 1.0f;
         polyhedronVertexThickness = 0.03f;
+        
+        // 效能預設值
+        doubleBuffered = true;
+        displayBackend = DisplayBackend.ENTITYLIB;
+        renderQuietPeriodMillis = 0;
+        renderBudgetPerTick = 2000;
+        adaptiveQualityEnabled = true;
+        adaptiveQualityDegradeMspt = List.of(40.0, 45.0, 48.0);
+        adaptiveQualityRecoverMarginMspt = 5.0;
+        adaptiveQualityCheckIntervalTicks = 40;
+        permissionRefreshIntervalTicks = 100;
+        renderRateLimitPerSecond = 5.0;
+        renderRateLimitBurst = 10;
     }
     
     /**
@@ -203,6 +232,9 @@ public class RenderSettings {
             // 載入 Polyhedron 設定
             loadPolyhedronSettings(config.getConfigurationSection("renderer.polyhedron"));
             
+            // 載入效能設定
+            loadPerformanceSettings(config.getConfigurationSection("performance"));
+            
         } catch (Exception e) {
             loadDefaults();
         }
@@ -360,6 +392,40 @@ public class RenderSettings {
         polyhedronVertexThickness = (float) section.getDouble("vertex_thickness", polyhedronVertexThickness);
     }
     
+    /**
+     * 載入效能設定
+     */
+    private void loadPerformanceSettings(ConfigurationSection section) {
+        if (section == null) {
+            return;
+        }
+        
+        doubleBuffered = section.getBoolean("double_buffered", doubleBuffered);
+        displayBackend = DisplayBackend.fromString(section.getString("display_backend"), displayBackend);
+        renderQuietPeriodMillis = Math.max(0, section.getLong("render_quiet_period_ms", renderQuietPeriodMillis));
+        renderBudgetPerTick = section.getInt("render_budget_per_tick", renderBudgetPerTick);
+        permissionRefreshIntervalTicks = section.getInt("permission_refresh_interval_ticks", permissionRefreshIntervalTicks);
+        
+        ConfigurationSection renderRateLimit = section.getConfigurationSection("render_rate_limit");
+        if (renderRateLimit != null) {
+            renderRateLimitPerSecond = Math.max(0, renderRateLimit.getDouble("renders_per_second", renderRateLimitPerSecond));
+            renderRateLimitBurst = Math.max(1, renderRateLimit.getInt("burst", renderRateLimitBurst));
+        }
+        
+        ConfigurationSection adaptiveQuality = section.getConfigurationSection("adaptive_quality");
+        if (adaptiveQuality != null) {
+            adaptiveQualityEnabled = adaptiveQuality.getBoolean("enabled", adaptiveQualityEnabled);
+            if (adaptiveQuality.isList("degrade_mspt")) {
+                // 門檻需遞增，依序對應每個降級等級
+                adaptiveQualityDegradeMspt = adaptiveQuality.getDoubleList("degrade_mspt").stream()
+                    .sorted()
+                    .toList();
+            }
+            adaptiveQualityRecoverMarginMspt = Math.max(0, adaptiveQuality.getDouble("recover_margin_mspt", adaptiveQualityRecoverMarginMspt));
+            adaptiveQualityCheckIntervalTicks = Math.max(1, adaptiveQuality.getInt("check_interval_ticks", adaptiveQualityCheckIntervalTicks));
+        }
+    }
+    
     /**
      * 從配置中讀取 Material
      * 
@@ -649,4 +715,50 @@ public class RenderSettings {
     public double getScaleFactorMax() {
         return scaleFactorMax;
     }
+    
+    // === 效能設定 Getters ===
+    
+    public boolean isDoubleBuffered() {
+        return doubleBuffered;
+    }
+    
+    public DisplayBackend getDisplayBackend() {
+        return displayBackend;
+    }
+    
+    public long getRenderQuietPeriodMillis() {
+        return renderQuietPeriodMillis;
+    }
+    
+    public int getRenderBudgetPerTick() {
+        return renderBudgetPerTick;
+    }
+    
+    public boolean isAdaptiveQualityEnabled() {
+        return adaptiveQualityEnabled;
+    }
+    
+    public List<Double> getAdaptiveQualityDegradeMspt() {
+        return adaptiveQualityDegradeMspt;
+    }
+    
+    public double getAdaptiveQualityRecoverMarginMspt() {
+        return adaptiveQualityRecoverMarginMspt;
+    }
+    
+    public int getAdaptiveQualityCheckIntervalTicks() {
+        return adaptiveQualityCheckIntervalTicks;
+    }
+    
+    public int getPermissionRefreshIntervalTicks() {
+        return permissionRefreshIntervalTicks;
+    }
+    
+    public double getRenderRateLimitPerSecond() {
+        return renderRateLimitPerSecond;
+    }
+    
+    public int getRenderRateLimitBurst() {
+        return renderRateLimitBurst;
+    }
 }
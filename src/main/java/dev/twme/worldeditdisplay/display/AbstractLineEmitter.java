@@ -0,0 +1,430 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.util.Quaternion4f;
+import com.github.retrooper.packetevents.util.Vector3f;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.display.renderer.RenderConfig;
+import dev.twme.worldeditdisplay.player.PlayerData;
+import io.github.retrooper.packetevents.util.SpigotConversionUtil;
+
+/**
+ * 以 ItemDisplay 實體顯示線段的發射器基類
+ *
+ * 提供各後端共用的部分:
+ * - 透過 {@link RenderReconciler} 與上一次發射的結果比對，只對改變的線段發送封包
+ * - 提交的線段依階段與距離排序：輪廓先於細節，離玩家近的先發送
+ * - 每次發射讀取一次在擁有玩家的執行緒上擷取的位置，作為新實體的錨點
+ * - 依材質快取 {@link DisplayMetaTemplate}，計算每條線段的縮放、旋轉與平移
+ *
+ * 子類別只負責實際生成、更新與移除實體
+ *
+ * @param <H> 實體控制代碼類型
+ */
+public abstract class AbstractLineEmitter<H> implements LineEmitter {
+
+    // 實體錨點與玩家距離超過此值(平方)時重新傳送，避免線條超出可見範圍
+    private static final double REANCHOR_DISTANCE_SQUARED = 48.0 * 48.0;
+
+    // 排序鍵中線段索引所佔的位元數，超過此數量的緩衝區維持繪製順序
+    private static final int SORT_INDEX_BITS = 20;
+
+    // 線段預設方向(沿 Z 軸縮放長度)
+    private static final org.joml.Vector3fc LINE_AXIS = new org.joml.Vector3f(0, 0, 1);
+
+    protected final WorldEditDisplay plugin;
+    protected final Player player;
+    protected final UUID playerUUID;
+    private final DisplayItemCache itemCache;
+
+    // 已顯示的線段與實體(跨渲染重用)
+    private final RenderReconciler<H> reconciler = new RenderReconciler<>();
+
+    // 最近一次提交、想要顯示的線段(複製自渲染器的緩衝區)與發送順序，跨提交重用陣列
+    private final LineBuffer frame = new LineBuffer();
+    private int[] order = new int[0];
+    private long[] sortKeys = new long[0];
+
+    // 提交的線段是否尚未全部發送到客戶端
+    private boolean pending;
+
+    // 本次發射開始時的玩家位置(新實體的錨點)，每次發射從 PlayerData 讀取一次
+    protected final Location anchorLocation = new Location(null, 0, 0, 0);
+    protected com.github.retrooper.packetevents.protocol.world.Location spawnLocation;
+
+    // 計算線段變換時重複使用的暫存物件與 metadata 項目
+    // 發射器的所有操作都在玩家的序列執行器上依序執行(可能是不同的虛擬執行緒，但不會同時執行)
+    private final org.joml.Vector3f scratchDirection = new org.joml.Vector3f();
+    private final org.joml.Quaternionf scratchRotation = new org.joml.Quaternionf();
+    // 第一次產生 metadata 時才建立，只計算幾何的發射器不需要 EntityLib
+    private DisplayMetaTemplate.Entries scratchEntries;
+    private final LineBuffer reanchorScratch = new LineBuffer();
+
+    // 最近用過的縮放與旋轉值物件，依數值雜湊放入固定大小的槽
+    // 選區的線段大多沿少數幾個方向、長度也多半相同，因此大部分線段可以共用同一個不可變物件
+    private static final int VALUE_CACHE_MASK = 63;
+    private final Vector3f[] scaleCache = new Vector3f[VALUE_CACHE_MASK + 1];
+    private final Quaternion4f[] rotationCache = new Quaternion4f[VALUE_CACHE_MASK + 1];
+
+    // 目前收集移除實體 ID 的批次(只在協調或清除期間有效)
+    protected EntityDestroyBatch destroyBatch;
+
+    // 目前發射所屬的封包組(只在協調期間有效)
+    protected PacketBundle packetBundle;
+
+    // 渲染配置
+    private RenderConfig config = RenderConfig.getDefault();
+
+    // 目前渲染配置下每種材質的 metadata 範本(配置變更或物品快取清空時清空)
+    private final Map<Material, DisplayMetaTemplate> templates = new EnumMap<>(Material.class);
+    private int templatesGeneration;
+
+    // 套用協調結果的實體操作
+    private final RenderReconciler.Operations<H> operations = new RenderReconciler.Operations<>() {
+        @Override
+        public H spawn(LineBuffer lines, int index) {
+            return spawnLine(lines, index);
+        }
+
+        @Override
+        public void update(H handle, LineBuffer lines, int index) {
+            updateLine(handle, lines, index);
+        }
+
+        @Override
+        public void destroy(H handle) {
+            destroyLine(handle);
+        }
+    };
+
+    protected AbstractLineEmitter(WorldEditDisplay plugin, Player player) {
+        this.plugin = plugin;
+        this.player = player;
+        this.playerUUID = player.getUniqueId();
+        this.itemCache = plugin.getDisplayItemCache();
+    }
+
+    @Override
+    public void emit(LineBuffer lines, EntityDestroyBatch batch, PacketBundle bundle) {
+        submit(lines);
+        flush(batch, bundle, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void submit(LineBuffer lines) {
+        frame.copyFrom(lines);
+        sortEmissionOrder(frame);
+        pending = true;
+    }
+
+    /**
+     * 計算線段的發送順序：先依階段(輪廓、細節)，同一階段內依中點與玩家的距離由近到遠
+     *
+     * 協調器依此順序消耗預算，因此大型選區的外框會先出現，網格隨後逐步補上
+     *
+     * 結果寫入 {@link #order} 的前 lines.size() 個位置
+     *
+     * @param lines 線段緩衝區
+     */
+    private void sortEmissionOrder(LineBuffer lines) {
+        int size = lines.size();
+        if (order.length < size) {
+            order = new int[Math.max(size, order.length * 2)];
+        }
+        if (size >= 1 << SORT_INDEX_BITS) {
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            return;
+        }
+        if (sortKeys.length < size) {
+            sortKeys = new long[Math.max(size, sortKeys.length * 2)];
+        }
+
+        readAnchor();
+        double px = anchorLocation.getX();
+        double py = anchorLocation.getY();
+        double pz = anchorLocation.getZ();
+
+        // 排序鍵: 階段 | 距離平方(非負 float 的位元順序與數值順序相同) | 索引
+        long[] keys = sortKeys;
+        for (int i = 0; i < size; i++) {
+            double dx = (lines.getStartX(i) + lines.getEndX(i)) * 0.5 - px;
+            double dy = (lines.getStartY(i) + lines.getEndY(i)) * 0.5 - py;
+            double dz = (lines.getStartZ(i) + lines.getEndZ(i)) * 0.5 - pz;
+            long distanceBits = Float.floatToIntBits((float) (dx * dx + dy * dy + dz * dz));
+            keys[i] = ((long) lines.getPass(i) << (31 + SORT_INDEX_BITS))
+                    | (distanceBits << SORT_INDEX_BITS)
+                    | i;
+        }
+        Arrays.sort(keys, 0, size);
+
+        int mask = (1 << SORT_INDEX_BITS) - 1;
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) (keys[i] & mask);
+        }
+    }
+
+    @Override
+    public int flush(EntityDestroyBatch batch, PacketBundle bundle, int budget) {
+        if (!pending) {
+            return 0;
+        }
+
+        readAnchor();
+        spawnLocation = SpigotConversionUtil.fromBukkitLocation(anchorLocation);
+
+        destroyBatch = batch;
+        packetBundle = bundle;
+        try {
+            if (reconciler.reconcile(frame, order, operations, budget)) {
+                pending = false;
+                frame.clear();
+            }
+        } finally {
+            destroyBatch = null;
+            packetBundle = null;
+        }
+        return reconciler.getLastSpawned() + reconciler.getLastUpdated();
+    }
+
+    /**
+     * 讀取在擁有玩家的執行緒上擷取的位置(yaw/pitch 已清除)
+     *
+     * 發射器在序列執行器上執行，不能直接讀取玩家位置(Folia 上只有玩家所在區域的執行緒可以)；
+     * 尚未擷取時沿用上一次的錨點
+     */
+    private void readAnchor() {
+        PlayerData playerData = PlayerData.getPlayerData(playerUUID);
+        Location captured = playerData != null ? playerData.getRenderAnchor() : null;
+        if (captured == null) {
+            return;
+        }
+        anchorLocation.setWorld(captured.getWorld());
+        anchorLocation.setX(captured.getX());
+        anchorLocation.setY(captured.getY());
+        anchorLocation.setZ(captured.getZ());
+    }
+
+    @Override
+    public int reanchor(PacketBundle bundle) {
+        readAnchor();
+        spawnLocation = SpigotConversionUtil.fromBukkitLocation(anchorLocation);
+
+        int moved = 0;
+        packetBundle = bundle;
+        try {
+            for (int i = 0; i < reconciler.getDisplayedCount(); i++) {
+                reanchorScratch.clear();
+                reconciler.copyDisplayedLine(i, reanchorScratch);
+                if (reanchorLine(reconciler.getDisplayedHandle(i), reanchorScratch, 0)) {
+                    moved++;
+                }
+            }
+        } finally {
+            packetBundle = null;
+        }
+        return moved;
+    }
+
+    @Override
+    public boolean hasPendingWork() {
+        return pending;
+    }
+
+    @Override
+    public void clear(EntityDestroyBatch batch) {
+        destroyBatch = batch;
+        try {
+            reconciler.clear(operations);
+        } finally {
+            destroyBatch = null;
+            pending = false;
+            frame.clear();
+        }
+    }
+
+    @Override
+    public void setConfig(RenderConfig config) {
+        this.config = config;
+        templates.clear();
+    }
+
+    @Override
+    public int size() {
+        return reconciler.size();
+    }
+
+    /**
+     * 在本次發射的錨點生成一個顯示指定線段的實體
+     *
+     * @param lines 線段緩衝區
+     * @param index 線段索引
+     * @return 新實體的控制代碼
+     */
+    protected abstract H spawnLine(LineBuffer lines, int index);
+
+    /**
+     * 將既有實體改為顯示另一條線段
+     *
+     * @param handle 重用的實體
+     * @param lines 線段緩衝區
+     * @param index 新線段的索引
+     */
+    protected abstract void updateLine(H handle, LineBuffer lines, int index);
+
+    /**
+     * 實體錨點離本次發射的錨點太遠時，將實體傳送到錨點，並以新錨點重新發送線段的變換
+     * (平移量以錨點為基準，只傳送會讓線段跟著移動)
+     *
+     * @param handle 實體
+     * @param lines 線段緩衝區
+     * @param index 實體目前顯示的線段索引
+     * @return 傳送了實體時返回 true
+     */
+    protected abstract boolean reanchorLine(H handle, LineBuffer lines, int index);
+
+    /**
+     * 移除實體，移除封包加入 {@link #destroyBatch}
+     *
+     * @param handle 實體
+     */
+    protected abstract void destroyLine(H handle);
+
+    /**
+     * 檢查實體錨點是否離本次發射的錨點太遠
+     *
+     * 顯示實體的可見距離是以實體位置計算的，錨點離玩家太遠時線條會被客戶端剔除
+     *
+     * @param x 實體錨點 X
+     * @param y 實體錨點 Y
+     * @param z 實體錨點 Z
+     * @return 需要重新傳送時返回 true
+     */
+    protected boolean isFarFromAnchor(double x, double y, double z) {
+        double dx = x - anchorLocation.getX();
+        double dy = y - anchorLocation.getY();
+        double dz = z - anchorLocation.getZ();
+        return dx * dx + dy * dy + dz * dz > REANCHOR_DISTANCE_SQUARED;
+    }
+
+    /**
+     * 建立線段的 metadata 項目：材質範本 + 縮放、旋轉與平移
+     *
+     * 此方法會自動計算線段的長度、方向和位置，
+     * 平移量以實體的錨點(生成點)為基準
+     *
+     * 返回的列表會在下一次呼叫時被覆寫，呼叫者必須在呼叫後立即發送或寫入
+     *
+     * @param anchorX 實體錨點 X
+     * @param anchorY 實體錨點 Y
+     * @param anchorZ 實體錨點 Z
+     * @param lines 線段緩衝區
+     * @param index 線段索引
+     * @return metadata 項目
+     */
+    protected List<EntityData<?>> createLineEntries(double anchorX, double anchorY, double anchorZ,
+                                                    LineBuffer lines, int index) {
+        float startX = lines.getStartX(index);
+        float startY = lines.getStartY(index);
+        float startZ = lines.getStartZ(index);
+        float endX = lines.getEndX(index);
+        float endY = lines.getEndY(index);
+        float endZ = lines.getEndZ(index);
+        float thickness = lines.getThickness(index);
+        float dx = endX - startX;
+        float dy = endY - startY;
+        float dz = endZ - startZ;
+
+        // 1. 計算線條的長度
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        float length = distance + thickness;
+
+        // 2. 計算從實體錨點(生成點)到線條中點(視覺目標點)的偏移量
+        // 這是唯一需要的 Translation
+        float translationX = (startX + endX) / 2 - (float) anchorX;
+        float translationY = (startY + endY) / 2 - (float) anchorY;
+        float translationZ = (startZ + endZ) / 2 - (float) anchorZ;
+
+        // 3. 計算旋轉四元數
+        // 因為我們沿 Z 軸縮放 (length)，所以我們的預設方向必須是 Z 軸
+        // 長度為 0 的線段維持預設方向
+        org.joml.Quaternionf rotation = scratchRotation.identity();
+        if (distance > 0) {
+            rotation.rotationTo(LINE_AXIS, scratchDirection.set(dx / distance, dy / distance, dz / distance));
+        }
+
+        // 4. 物品、顯示類型與配置來自範本，縮放沿 Z 軸
+        // PacketEvents 的 Vector3f / Quaternion4f 是不可變的值物件，會被 EntityLib 的 metadata 直接持有，
+        // 因此不能重複寫入同一個物件；縮放與旋轉改為共用數值相同的物件，只有平移每條線段都不同
+        if (scratchEntries == null) {
+            scratchEntries = new DisplayMetaTemplate.Entries();
+        }
+        return templateFor(lines.getMaterial(index)).fillEntries(scratchEntries,
+                scale(thickness, length),
+                rotation(rotation.x, rotation.y, rotation.z, rotation.w),
+                new Vector3f(translationX, translationY, translationZ));
+    }
+
+    /**
+     * 取得數值相同的縮放物件，快取中沒有時才建立
+     */
+    private Vector3f scale(float thickness, float length) {
+        int slot = slot(Float.floatToIntBits(thickness) * 31 + Float.floatToIntBits(length));
+        Vector3f cached = scaleCache[slot];
+        if (cached == null || cached.getX() != thickness || cached.getZ() != length) {
+            cached = new Vector3f(thickness, thickness, length);
+            scaleCache[slot] = cached;
+        }
+        return cached;
+    }
+
+    /**
+     * 取得數值相同的旋轉物件，快取中沒有時才建立
+     */
+    private Quaternion4f rotation(float x, float y, float z, float w) {
+        int hash = ((Float.floatToIntBits(x) * 31 + Float.floatToIntBits(y)) * 31
+                + Float.floatToIntBits(z)) * 31 + Float.floatToIntBits(w);
+        int slot = slot(hash);
+        Quaternion4f cached = rotationCache[slot];
+        if (cached == null || cached.getX() != x || cached.getY() != y
+                || cached.getZ() != z || cached.getW() != w) {
+            cached = new Quaternion4f(x, y, z, w);
+            rotationCache[slot] = cached;
+        }
+        return cached;
+    }
+
+    private static int slot(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9 >>> 26 & VALUE_CACHE_MASK;
+    }
+
+    /**
+     * 獲取材質的 metadata 範本，第一次使用時建立
+     *
+     * 重新載入清空物品快取後，範本持有的舊物品會在這裡一併丟棄
+     *
+     * @param material 材質
+     * @return 範本
+     */
+    private DisplayMetaTemplate templateFor(Material material) {
+        int generation = itemCache.getGeneration();
+        if (generation != templatesGeneration) {
+            templates.clear();
+            templatesGeneration = generation;
+        }
+        return templates.computeIfAbsent(material,
+                key -> DisplayMetaTemplate.create(config, itemCache.get(key)));
+    }
+}
@@ -0,0 +1,135 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.entity.Player;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.player.User;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOutboundBuffer;
+
+/**
+ * 連線背壓 - 依玩家連線的可寫狀態決定是否繼續發送渲染封包
+ *
+ * 大型選區一次生成數千個實體，連線較慢的玩家來不及接收時，
+ * 封包會堆積在伺服器的 Netty 輸出緩衝區。Netty 在待發送的位元組超過
+ * 高水位時把連線標記為不可寫，此時暫停發送剩餘的線段，
+ * 等緩衝區降到低水位、連線恢復可寫後再由 {@link RenderScheduler} 繼續
+ *
+ * 同時記錄每個玩家最後一次檢查時緩衝區中待發送的位元組數，供 /wedisplay status 顯示
+ */
+public class ChannelBackpressure {
+
+    // 玩家 UUID -> 連線狀態
+    private final Map<UUID, ChannelState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 檢查玩家的連線是否可以繼續寫入，並更新玩家的連線狀態
+     *
+     * 無法取得連線時視為可寫，由原本的流程處理(例如玩家已離線)
+     *
+     * @param player 玩家
+     * @return 連線可寫時返回 true
+     */
+    public boolean isWritable(Player player) {
+        Channel channel = getChannel(player);
+        if (channel == null) {
+            return true;
+        }
+
+        boolean writable = channel.isWritable();
+        ChannelState state = states.computeIfAbsent(player.getUniqueId(), k -> new ChannelState());
+        state.queuedBytes = getQueuedBytes(channel);
+        state.paused = !writable;
+        return writable;
+    }
+
+    /**
+     * 移除玩家的連線狀態
+     *
+     * @param playerId 玩家 UUID
+     */
+    public void remove(UUID playerId) {
+        states.remove(playerId);
+    }
+
+    /**
+     * 移除所有玩家的連線狀態
+     */
+    public void clear() {
+        states.clear();
+    }
+
+    /**
+     * 獲取目前因連線不可寫而暫停發送的玩家數量
+     *
+     * @return 玩家數量
+     */
+    public int getPausedCount() {
+        int count = 0;
+        for (ChannelState state : states.values()) {
+            if (state.paused) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 獲取玩家最後一次檢查時待發送的位元組數
+     *
+     * @param playerId 玩家 UUID
+     * @return 位元組數，沒有紀錄時返回 0
+     */
+    public long getQueuedBytes(UUID playerId) {
+        ChannelState state = states.get(playerId);
+        return state != null ? state.queuedBytes : 0L;
+    }
+
+    /**
+     * 獲取所有玩家中最多的待發送位元組數
+     *
+     * @return 位元組數
+     */
+    public long getMaxQueuedBytes() {
+        long max = 0L;
+        for (ChannelState state : states.values()) {
+            max = Math.max(max, state.queuedBytes);
+        }
+        return max;
+    }
+
+    /**
+     * 透過 PacketEvents 取得玩家的 Netty 連線
+     */
+    private static Channel getChannel(Player player) {
+        User user = PacketEvents.getAPI().getPlayerManager().getUser(player);
+        if (user == null) {
+            return null;
+        }
+        Object channel = user.getChannel();
+        return channel instanceof Channel nettyChannel ? nettyChannel : null;
+    }
+
+    /**
+     * 輸出緩衝區中尚未寫入 socket 的位元組數
+     */
+    private static long getQueuedBytes(Channel channel) {
+        ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+        return buffer != null ? buffer.totalPendingWriteBytes() : 0L;
+    }
+
+    /**
+     * 玩家的連線狀態
+     *
+     * 只在玩家的序列執行器上寫入，其他執行緒只讀取統計資料
+     */
+    private static final class ChannelState {
+        private volatile boolean paused;
+        private volatile long queuedBytes;
+    }
+}
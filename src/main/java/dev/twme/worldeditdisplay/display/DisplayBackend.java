@@ -0,0 +1,61 @@
+package dev.twme.worldeditdisplay.display;
+
+import org.bukkit.entity.Player;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+
+/**
+ * 顯示實體後端
+ *
+ * 決定線段如何轉換為客戶端實體，可在 config.yml 的 performance.display_backend 選擇
+ */
+public enum DisplayBackend {
+
+    /**
+     * 每條線段是一個 EntityLib WrapperEntity
+     */
+    ENTITYLIB {
+        @Override
+        public LineEmitter createEmitter(WorldEditDisplay plugin, Player player) {
+            return new DisplayEntityEmitter(plugin, player);
+        }
+    },
+
+    /**
+     * 每條線段只是一組實體 ID 與 UUID，直接發送 PacketEvents 封包
+     */
+    PACKET {
+        @Override
+        public LineEmitter createEmitter(WorldEditDisplay plugin, Player player) {
+            return new PacketDisplayEmitter(plugin, player);
+        }
+    };
+
+    /**
+     * 為玩家建立此後端的線段發射器
+     *
+     * @param plugin 插件實例
+     * @param player 目標玩家
+     * @return 線段發射器
+     */
+    public abstract LineEmitter createEmitter(WorldEditDisplay plugin, Player player);
+
+    /**
+     * 從配置值解析後端(不區分大小寫)
+     *
+     * @param name 配置值
+     * @param defaultValue 無法解析時的預設值
+     * @return 後端
+     */
+    public static DisplayBackend fromString(String name, DisplayBackend defaultValue) {
+        if (name == null || name.isEmpty()) {
+            return defaultValue;
+        }
+
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultValue;
+        }
+    }
+}
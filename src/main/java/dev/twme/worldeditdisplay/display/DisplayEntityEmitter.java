@@ -0,0 +1,138 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.List;
+import java.util.logging.Level;
+
+import org.bukkit.entity.Player;
+
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityType;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+import com.github.retrooper.packetevents.protocol.world.Location;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import me.tofaa.entitylib.wrapper.WrapperEntity;
+
+/**
+ * 以 EntityLib ItemDisplay 實體顯示線段的發射器
+ *
+ * 每條線段對應一個 EntityLib {@link WrapperEntity}，由 EntityLib 保存實體狀態與觀察者
+ */
+public class DisplayEntityEmitter extends AbstractLineEmitter<WrapperEntity> {
+
+    public DisplayEntityEmitter(WorldEditDisplay plugin, Player player) {
+        super(plugin, player);
+    }
+
+    /**
+     * 移除單一實體
+     *
+     * 移除封包不會立即發送，而是加入目前的移除批次
+     *
+     * @param entity 顯示實體
+     */
+    @Override
+    protected void destroyLine(WrapperEntity entity) {
+        try {
+            destroyBatch.add(player, entity.getEntityId());
+            // 先靜默移除觀察者，避免 EntityLib 逐一發送移除封包
+            entity.removeViewerSilently(playerUUID);
+            entity.remove();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to remove entity: " + entity.getEntityId(), e);
+        }
+    }
+
+    /**
+     * 創建並生成一個新的顯示實體
+     *
+     * @param entityType 實體類型
+     * @param location 生成位置
+     * @return WrapperEntity 實例
+     */
+    private WrapperEntity createEntity(EntityType entityType, Location location) {
+        WrapperEntity entity = new WrapperEntity(entityType);
+
+        // 生成實體(每個實體持有自己的位置物件)
+        entity.spawn(location.clone());
+
+        return entity;
+    }
+
+    /**
+     * 在玩家腳下生成一個顯示指定線段的 ItemDisplay 實體
+     *
+     * @param lines 線段緩衝區
+     * @param index 線段索引
+     * @return 新實體
+     */
+    @Override
+    protected WrapperEntity spawnLine(LineBuffer lines, int index) {
+        // 生成封包 + metadata 封包
+        packetBundle.track(2);
+        WrapperEntity entity = createEntity(EntityTypes.ITEM_DISPLAY, spawnLocation);
+
+        // 設置元數據(尚無觀察者，不會發送封包)
+        DisplayMetaTemplate.write(entity.getEntityMeta(), createLineEntries(entity, lines, index));
+
+        // 添加觀察者(生成封包 + 完整 metadata 封包)
+        entity.addViewer(playerUUID);
+        return entity;
+    }
+
+    /**
+     * 將既有實體改為顯示另一條線段，只發送一個 metadata 封包
+     *
+     * @param entity 重用的實體
+     * @param lines 線段緩衝區
+     * @param index 新線段的索引
+     */
+    @Override
+    protected void updateLine(WrapperEntity entity, LineBuffer lines, int index) {
+        reanchorIfFar(entity);
+        sendLine(entity, lines, index);
+    }
+
+    @Override
+    protected boolean reanchorLine(WrapperEntity entity, LineBuffer lines, int index) {
+        if (!reanchorIfFar(entity)) {
+            return false;
+        }
+        sendLine(entity, lines, index);
+        return true;
+    }
+
+    /**
+     * 以實體目前的位置為錨點寫入並發送線段的 metadata
+     */
+    private void sendLine(WrapperEntity entity, LineBuffer lines, int index) {
+        packetBundle.track(1);
+
+        // 靜默寫入 EntityLib 的狀態，再以同一組項目發送一個封包
+        List<EntityData<?>> entries = createLineEntries(entity, lines, index);
+        DisplayMetaTemplate.write(entity.getEntityMeta(), entries);
+        entity.sendPacketToViewers(new WrapperPlayServerEntityMetadata(entity.getEntityId(), entries));
+    }
+
+    private List<EntityData<?>> createLineEntries(WrapperEntity entity, LineBuffer lines, int index) {
+        Location anchor = entity.getLocation();
+        return createLineEntries(anchor.getX(), anchor.getY(), anchor.getZ(), lines, index);
+    }
+
+    /**
+     * 當重用的實體錨點離玩家太遠時，將其傳送到玩家腳下
+     *
+     * @param entity 重用的實體
+     * @return 傳送了實體時返回 true
+     */
+    private boolean reanchorIfFar(WrapperEntity entity) {
+        Location anchor = entity.getLocation();
+        if (!isFarFromAnchor(anchor.getX(), anchor.getY(), anchor.getZ())) {
+            return false;
+        }
+        packetBundle.track(1);
+        entity.teleport(spawnLocation.clone());
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Material;
+
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+
+import io.github.retrooper.packetevents.util.SpigotConversionUtil;
+
+/**
+ * 顯示實體物品快取 - 依材質快取已轉換的 PacketEvents 物品
+ *
+ * 將 Bukkit ItemStack 轉換為 PacketEvents ItemStack 需要經過伺服器內部實作，
+ * 而一次渲染通常只會用到 3~4 種材質，因此每種材質只轉換一次並由所有渲染器共用
+ *
+ * 快取中的物品會被多個實體的 metadata 共用，取得後不可修改
+ *
+ * 發射器的 metadata 範本也持有這些物品，因此清空時會遞增世代，
+ * 發射器在下一次建立 metadata 前發現世代改變就會丟棄舊範本
+ */
+public class DisplayItemCache {
+
+    private final Map<Material, ItemStack> items = new ConcurrentHashMap<>();
+
+    // 每次清空時遞增
+    private volatile int generation;
+
+    /**
+     * 獲取指定材質的物品，第一次使用時才轉換
+     *
+     * @param material 材質
+     * @return 共用的 PacketEvents 物品(不可修改)
+     */
+    public ItemStack get(Material material) {
+        return items.computeIfAbsent(material,
+                key -> SpigotConversionUtil.fromBukkitItemStack(new org.bukkit.inventory.ItemStack(key)));
+    }
+
+    /**
+     * 清空快取(重新載入配置時呼叫)
+     */
+    public void clear() {
+        items.clear();
+        generation++;
+    }
+
+    /**
+     * 獲取目前的世代，快取被清空後改變
+     *
+     * @return 世代
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * 獲取已快取的材質數量
+     *
+     * @return 材質數量
+     */
+    public int size() {
+        return items.size();
+    }
+}
@@ -0,0 +1,174 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataType;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.util.Quaternion4f;
+import com.github.retrooper.packetevents.util.Vector3f;
+
+import dev.twme.worldeditdisplay.display.renderer.RenderConfig;
+import me.tofaa.entitylib.meta.EntityMeta;
+import me.tofaa.entitylib.meta.Metadata;
+import me.tofaa.entitylib.meta.display.ItemDisplayMeta;
+
+/**
+ * 顯示實體 metadata 項目重用(EntityData 共用，不是預先編碼的位元組)
+ *
+ * 同一個渲染配置與材質的所有線段，物品、顯示類型、可見距離、亮度、陰影與發光
+ * 都完全相同，因此這些 EntityData 項目只建立一次並由所有線段共用，
+ * 每條線段只需要再加上縮放、旋轉與平移三個項目
+ *
+ * 省下的是每條線段執行 meta setter 與建立項目的成本；封包編碼不變，
+ * PacketEvents 發送時仍會依玩家的協定版本序列化每個項目，
+ * EntityLib 後端也由 EntityLib 自行組成封包，因此這裡不保存編碼後的位元組
+ *
+ * 每條線段的項目列表由發射器的 {@link Entries} 重複使用，不為每條線段建立列表與項目
+ *
+ * metadata 索引會隨伺服器版本改變，因此索引由 EntityLib 的 ItemDisplayMeta 探測而來，
+ * 而不是寫死在程式中
+ */
+public final class DisplayMetaTemplate {
+
+    private final List<EntityData<?>> constantEntries;
+
+    private DisplayMetaTemplate(List<EntityData<?>> constantEntries) {
+        this.constantEntries = constantEntries;
+    }
+
+    /**
+     * 建立範本
+     *
+     * @param config 渲染配置
+     * @param item 線段使用的物品(來自 {@link DisplayItemCache})
+     * @return 範本
+     */
+    public static DisplayMetaTemplate create(RenderConfig config, ItemStack item) {
+        ItemDisplayMeta meta = TransformIndices.newProbe();
+
+        // 物品與顯示類型
+        meta.setItem(item);
+        meta.setDisplayType(ItemDisplayMeta.DisplayType.NONE);
+
+        // 設定可見距離
+        meta.setViewRange(config.getViewRange());
+
+        // 設定亮度(始終發光)
+        if (config.isAlwaysBright()) {
+            meta.setBrightnessOverride(RenderConfig.getFullBrightness());
+        }
+
+        // 設定陰影
+        meta.setShadowRadius(config.getShadowRadius());
+        meta.setShadowStrength(config.getShadowStrength());
+
+        // 設定發光顏色
+        if (config.hasGlowColor()) {
+            meta.setGlowColorOverride(config.getGlowColor());
+        }
+
+        List<EntityData<?>> entries = new ArrayList<>(meta.getMetadata().getEntries());
+        return new DisplayMetaTemplate(Collections.unmodifiableList(entries));
+    }
+
+    /**
+     * 以範本項目與變換值填入一條線段的完整 metadata 項目
+     *
+     * 返回的列表屬於 entries，下一次填入時會被覆寫，因此必須在填入後立即發送或寫入：
+     * PacketEvents 在 sendPacket 時就把封包編碼完成，{@link #write(EntityMeta, List)} 會複製項目的值
+     *
+     * @param entries 發射器重複使用的項目
+     * @param scale 縮放
+     * @param rotation 旋轉(左旋轉)
+     * @param translation 平移
+     * @return metadata 項目列表
+     */
+    public List<EntityData<?>> fillEntries(Entries entries, Vector3f scale, Quaternion4f rotation, Vector3f translation) {
+        List<EntityData<?>> list = entries.list;
+        list.clear();
+        list.addAll(constantEntries);
+        entries.scale.setValue(scale);
+        entries.rotation.setValue(rotation);
+        entries.translation.setValue(translation);
+        list.add(entries.scale);
+        list.add(entries.rotation);
+        list.add(entries.translation);
+        return list;
+    }
+
+    /**
+     * 將 metadata 項目寫入 EntityLib 實體的 metadata(不發送封包)
+     *
+     * 讓 EntityLib 保存的實體狀態與客戶端一致，例如之後新增觀察者時會發送正確的內容
+     *
+     * @param meta 實體 metadata
+     * @param entries metadata 項目
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void write(EntityMeta meta, List<EntityData<?>> entries) {
+        Metadata metadata = meta.getMetadata();
+        metadata.setNotifyAboutChanges(false);
+        try {
+            for (EntityData<?> entry : entries) {
+                metadata.setIndex((byte) entry.getIndex(), (EntityDataType) entry.getType(), entry.getValue());
+            }
+        } finally {
+            metadata.setNotifyAboutChanges(true);
+        }
+    }
+
+    /**
+     * 可重複使用的一條線段 metadata 項目(列表與三個變換項目)
+     *
+     * 不是執行緒安全的，每個發射器持有一個，只在玩家的序列執行器上使用
+     */
+    public static final class Entries {
+        private final List<EntityData<?>> list = new ArrayList<>();
+        private final EntityData<Vector3f> scale =
+                new EntityData<>(TransformIndices.SCALE, EntityDataTypes.VECTOR3F, null);
+        private final EntityData<Quaternion4f> rotation =
+                new EntityData<>(TransformIndices.LEFT_ROTATION, EntityDataTypes.QUATERNION, null);
+        private final EntityData<Vector3f> translation =
+                new EntityData<>(TransformIndices.TRANSLATION, EntityDataTypes.VECTOR3F, null);
+    }
+
+    /**
+     * 變換項目的 metadata 索引(第一次使用時探測)
+     */
+    private static final class TransformIndices {
+        private static final int SCALE = probe(meta -> meta.setScale(new Vector3f(1, 1, 1)));
+        private static final int LEFT_ROTATION = probe(meta -> meta.setLeftRotation(new Quaternion4f(0, 0, 0, 1)));
+        private static final int TRANSLATION = probe(meta -> meta.setTranslation(new Vector3f(0, 0, 0)));
+
+        private static ItemDisplayMeta newProbe() {
+            return (ItemDisplayMeta) EntityMeta.createMeta(0, EntityTypes.ITEM_DISPLAY);
+        }
+
+        /**
+         * 在空的 metadata 上執行設定，找出新增的項目索引
+         */
+        private static int probe(Consumer<ItemDisplayMeta> setter) {
+            ItemDisplayMeta meta = newProbe();
+            Set<Integer> before = new HashSet<>();
+            for (EntityData<?> entry : meta.getMetadata().getEntries()) {
+                before.add(entry.getIndex());
+            }
+
+            setter.accept(meta);
+            for (EntityData<?> entry : meta.getMetadata().getEntries()) {
+                if (!before.contains(entry.getIndex())) {
+                    return entry.getIndex();
+                }
+            }
+            throw new IllegalStateException("Unable to resolve display metadata index");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.entity.Player;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDestroyEntities;
+
+/**
+ * 批次實體移除 - 依觀察者收集要移除的實體 ID
+ *
+ * 每個觀察者在 {@link #flush()} 時只會收到一個 DestroyEntities 封包，
+ * 取代逐一對每個實體發送移除封包
+ */
+public class EntityDestroyBatch {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // 觀察者 UUID -> 待移除的實體 ID
+    private final Map<UUID, PendingIds> pending = new LinkedHashMap<>();
+
+    /**
+     * 加入一個要對指定觀察者移除的實體
+     *
+     * @param viewer 觀察者
+     * @param entityId 實體 ID
+     */
+    public void add(Player viewer, int entityId) {
+        pending.computeIfAbsent(viewer.getUniqueId(), k -> new PendingIds(viewer)).add(entityId);
+    }
+
+    /**
+     * 是否沒有任何待移除的實體
+     *
+     * @return 如果沒有待移除的實體則返回 true
+     */
+    public boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * 獲取待移除的實體總數
+     *
+     * @return 實體數量
+     */
+    public int size() {
+        int total = 0;
+        for (PendingIds ids : pending.values()) {
+            total += ids.size;
+        }
+        return total;
+    }
+
+    /**
+     * 對每個觀察者發送一個 DestroyEntities 封包並清空批次
+     */
+    public void flush() {
+        for (PendingIds ids : pending.values()) {
+            if (ids.size == 0 || !ids.viewer.isOnline()) {
+                continue;
+            }
+            WrapperPlayServerDestroyEntities packet =
+                    new WrapperPlayServerDestroyEntities(Arrays.copyOf(ids.entityIds, ids.size));
+            PacketEvents.getAPI().getPlayerManager().sendPacket(ids.viewer, packet);
+        }
+        pending.clear();
+    }
+
+    /**
+     * 單一觀察者的待移除實體 ID 列表
+     */
+    private static final class PendingIds {
+        private final Player viewer;
+        private int[] entityIds = new int[INITIAL_CAPACITY];
+        private int size;
+
+        private PendingIds(Player viewer) {
+            this.viewer = viewer;
+        }
+
+        private void add(int entityId) {
+            if (size == entityIds.length) {
+                entityIds = Arrays.copyOf(entityIds, size * 2);
+            }
+            entityIds[size++] = entityId;
+        }
+    }
+}
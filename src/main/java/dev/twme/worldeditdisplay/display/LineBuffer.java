@@ -0,0 +1,231 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.Arrays;
+
+import org.bukkit.Material;
+
+/**
+ * 線段緩衝區 - 渲染器幾何階段的輸出
+ *
+ * 以陣列結構(struct-of-arrays)儲存線段，不建立任何實體或封包:
+ * - 座標: 每條線段 6 個 float(起點 xyz、終點 xyz)
+ * - 材質與粗細: 以調色盤索引儲存，一次渲染通常只有 3~4 種
+ * - 階段: 輪廓線段先發送，細節線段(網格、中間的環)之後再補上
+ *
+ * 緩衝區由 {@link LineEmitter} 轉換成實際的客戶端實體，發射器與協調器直接讀取各線段的欄位，
+ * 不會為每條線段建立物件
+ */
+public final class LineBuffer {
+
+    /**
+     * 輪廓階段：選區的外框，優先發送
+     */
+    public static final int PASS_OUTLINE = 0;
+
+    /**
+     * 細節階段：網格與中間的環，在輪廓之後發送
+     */
+    public static final int PASS_DETAIL = 1;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int PALETTE_CAPACITY = 8;
+
+    // 每條線段的座標數量
+    private static final int STRIDE = 6;
+
+    private float[] coords;
+    private int[] materialIndices;
+    private int[] thicknessIndices;
+    private byte[] passes;
+    private int size;
+
+    // 之後加入的線段所屬的階段
+    private int currentPass = PASS_OUTLINE;
+
+    // 調色盤
+    private Material[] materials;
+    private int materialCount;
+    private float[] thicknesses;
+    private int thicknessCount;
+
+    public LineBuffer() {
+        this.coords = new float[INITIAL_CAPACITY * STRIDE];
+        this.materialIndices = new int[INITIAL_CAPACITY];
+        this.thicknessIndices = new int[INITIAL_CAPACITY];
+        this.passes = new byte[INITIAL_CAPACITY];
+        this.materials = new Material[PALETTE_CAPACITY];
+        this.thicknesses = new float[PALETTE_CAPACITY];
+    }
+
+    /**
+     * 加入一條線段
+     *
+     * @param startX 起點 X
+     * @param startY 起點 Y
+     * @param startZ 起點 Z
+     * @param endX 終點 X
+     * @param endY 終點 Y
+     * @param endZ 終點 Z
+     * @param material 材質
+     * @param thickness 粗細
+     */
+    public void add(float startX, float startY, float startZ,
+                    float endX, float endY, float endZ,
+                    Material material, float thickness) {
+        ensureCapacity(size + 1);
+
+        int offset = size * STRIDE;
+        coords[offset] = startX;
+        coords[offset + 1] = startY;
+        coords[offset + 2] = startZ;
+        coords[offset + 3] = endX;
+        coords[offset + 4] = endY;
+        coords[offset + 5] = endZ;
+        materialIndices[size] = materialIndex(material);
+        thicknessIndices[size] = thicknessIndex(thickness);
+        passes[size] = (byte) currentPass;
+        size++;
+    }
+
+    /**
+     * 設定之後加入的線段所屬的階段
+     *
+     * @param pass {@link #PASS_OUTLINE} 或 {@link #PASS_DETAIL}
+     */
+    public void setPass(int pass) {
+        this.currentPass = pass;
+    }
+
+    /**
+     * 清空緩衝區與調色盤(保留已配置的陣列)，階段重設為輪廓
+     */
+    public void clear() {
+        size = 0;
+        currentPass = PASS_OUTLINE;
+        Arrays.fill(materials, 0, materialCount, null);
+        materialCount = 0;
+        thicknessCount = 0;
+    }
+
+    /**
+     * 以另一個緩衝區的內容取代此緩衝區(包含調色盤與目前階段)，容量足夠時不配置新陣列
+     *
+     * @param other 來源緩衝區
+     */
+    public void copyFrom(LineBuffer other) {
+        ensureCapacity(other.size);
+        System.arraycopy(other.coords, 0, coords, 0, other.size * STRIDE);
+        System.arraycopy(other.materialIndices, 0, materialIndices, 0, other.size);
+        System.arraycopy(other.thicknessIndices, 0, thicknessIndices, 0, other.size);
+        System.arraycopy(other.passes, 0, passes, 0, other.size);
+        size = other.size;
+        currentPass = other.currentPass;
+
+        Arrays.fill(materials, 0, materialCount, null);
+        if (materials.length < other.materialCount) {
+            materials = new Material[other.materials.length];
+        }
+        System.arraycopy(other.materials, 0, materials, 0, other.materialCount);
+        materialCount = other.materialCount;
+
+        if (thicknesses.length < other.thicknessCount) {
+            thicknesses = new float[other.thicknesses.length];
+        }
+        System.arraycopy(other.thicknesses, 0, thicknesses, 0, other.thicknessCount);
+        thicknessCount = other.thicknessCount;
+    }
+
+    /**
+     * 獲取線段數量
+     *
+     * @return 線段數量
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public float getStartX(int index) {
+        return coords[index * STRIDE];
+    }
+
+    public float getStartY(int index) {
+        return coords[index * STRIDE + 1];
+    }
+
+    public float getStartZ(int index) {
+        return coords[index * STRIDE + 2];
+    }
+
+    public float getEndX(int index) {
+        return coords[index * STRIDE + 3];
+    }
+
+    public float getEndY(int index) {
+        return coords[index * STRIDE + 4];
+    }
+
+    public float getEndZ(int index) {
+        return coords[index * STRIDE + 5];
+    }
+
+    public int getMaterialIndex(int index) {
+        return materialIndices[index];
+    }
+
+    public int getThicknessIndex(int index) {
+        return thicknessIndices[index];
+    }
+
+    public int getPass(int index) {
+        return passes[index];
+    }
+
+    public Material getMaterial(int index) {
+        return materials[materialIndices[index]];
+    }
+
+    public float getThickness(int index) {
+        return thicknesses[thicknessIndices[index]];
+    }
+
+    private int materialIndex(Material material) {
+        for (int i = 0; i < materialCount; i++) {
+            if (materials[i] == material) {
+                return i;
+            }
+        }
+        if (materialCount == materials.length) {
+            materials = Arrays.copyOf(materials, materialCount * 2);
+        }
+        materials[materialCount] = material;
+        return materialCount++;
+    }
+
+    private int thicknessIndex(float thickness) {
+        for (int i = 0; i < thicknessCount; i++) {
+            if (Float.compare(thicknesses[i], thickness) == 0) {
+                return i;
+            }
+        }
+        if (thicknessCount == thicknesses.length) {
+            thicknesses = Arrays.copyOf(thicknesses, thicknessCount * 2);
+        }
+        thicknesses[thicknessCount] = thickness;
+        return thicknessCount++;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= materialIndices.length) {
+            return;
+        }
+        int capacity = Math.max(required, materialIndices.length * 2);
+        coords = Arrays.copyOf(coords, capacity * STRIDE);
+        materialIndices = Arrays.copyOf(materialIndices, capacity);
+        thicknessIndices = Arrays.copyOf(thicknessIndices, capacity);
+        passes = Arrays.copyOf(passes, capacity);
+    }
+}
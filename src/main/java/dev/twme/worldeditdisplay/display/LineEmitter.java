@@ -0,0 +1,78 @@
+package dev.twme.worldeditdisplay.display;
+
+import dev.twme.worldeditdisplay.display.renderer.RenderConfig;
+
+/**
+ * 線段發射器 - 渲染器的輸出階段
+ *
+ * 將 {@link LineBuffer} 中的線段轉換為客戶端上的實體與封包，
+ * 並負責記住目前已顯示的內容，以便下一次只發送差異
+ */
+public interface LineEmitter {
+
+    /**
+     * 讓客戶端顯示緩衝區中的所有線段
+     *
+     * @param lines 本次渲染的線段
+     * @param batch 移除批次(由呼叫者發送)
+     * @param bundle 生成與更新封包所屬的封包組
+     */
+    void emit(LineBuffer lines, EntityDestroyBatch batch, PacketBundle bundle);
+
+    /**
+     * 設定想要顯示的線段，但不發送任何封包
+     *
+     * 取代之前尚未完成的線段，實際的實體操作由 {@link #flush(EntityDestroyBatch, PacketBundle, int)} 分批執行
+     *
+     * @param lines 本次渲染的線段
+     */
+    void submit(LineBuffer lines);
+
+    /**
+     * 繼續讓客戶端顯示最近一次提交的線段，最多執行指定數量的生成與更新
+     *
+     * @param batch 移除批次(由呼叫者發送)
+     * @param bundle 生成與更新封包所屬的封包組
+     * @param budget 最多可執行的生成與更新數量
+     * @return 實際執行的生成與更新數量
+     */
+    int flush(EntityDestroyBatch batch, PacketBundle bundle, int budget);
+
+    /**
+     * 是否還有尚未發送到客戶端的線段
+     *
+     * @return 有未完成的工作時返回 true
+     */
+    boolean hasPendingWork();
+
+    /**
+     * 將錨點離玩家太遠的已顯示實體傳送到玩家附近
+     *
+     * 內容不變的線段不會重新發送，玩家走遠後只能透過此方法移動它們的錨點
+     *
+     * @param bundle 傳送封包所屬的封包組
+     * @return 傳送的實體數量
+     */
+    int reanchor(PacketBundle bundle);
+
+    /**
+     * 移除所有已顯示的線段
+     *
+     * @param batch 移除批次(由呼叫者發送)
+     */
+    void clear(EntityDestroyBatch batch);
+
+    /**
+     * 設定渲染配置
+     *
+     * @param config 渲染配置
+     */
+    void setConfig(RenderConfig config);
+
+    /**
+     * 獲取已顯示的實體數量
+     *
+     * @return 實體數量
+     */
+    int size();
+}
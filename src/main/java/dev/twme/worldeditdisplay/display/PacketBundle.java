@@ -0,0 +1,108 @@
+package dev.twme.worldeditdisplay.display;
+
+import org.bukkit.entity.Player;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBundle;
+
+/**
+ * 封包組 - 以 Bundle 分隔封包包住一次渲染的所有封包
+ *
+ * 客戶端會在同一幀內套用兩個分隔封包之間的所有封包，
+ * 因此新線段的生成與舊線段的移除會同時生效，不會看到半成品的選區
+ *
+ * 原版客戶端限制每個 Bundle 最多 4096 個封包，超過時會自動分成多個 Bundle
+ */
+public class PacketBundle {
+
+    // 原版客戶端每個 Bundle 的封包上限為 4096，保留一些餘裕
+    private static final int MAX_BUNDLE_PACKETS = 4000;
+
+    private final Player viewer;
+    private final boolean enabled;
+    private boolean open;
+    private int packetCount;
+
+    /**
+     * 建構子
+     *
+     * @param viewer 接收封包的玩家
+     * @param enabled 是否啟用 Bundle(停用時所有方法皆不做任何事)
+     */
+    public PacketBundle(Player viewer, boolean enabled) {
+        this.viewer = viewer;
+        this.enabled = enabled && supportsBundles(viewer);
+    }
+
+    /**
+     * 建立一個不使用 Bundle 的封包組
+     *
+     * @param viewer 接收封包的玩家
+     * @return 停用的封包組
+     */
+    public static PacketBundle disabled(Player viewer) {
+        return new PacketBundle(viewer, false);
+    }
+
+    /**
+     * 開始 Bundle
+     */
+    public void open() {
+        if (!enabled || open) {
+            return;
+        }
+        sendDelimiter();
+        open = true;
+        packetCount = 0;
+    }
+
+    /**
+     * 記錄即將發送的封包數量，超過上限時先結束目前的 Bundle 再開始新的
+     *
+     * @param packets 封包數量
+     */
+    public void track(int packets) {
+        if (!open) {
+            return;
+        }
+        if (packetCount + packets > MAX_BUNDLE_PACKETS) {
+            sendDelimiter();
+            sendDelimiter();
+            packetCount = 0;
+        }
+        packetCount += packets;
+    }
+
+    /**
+     * 結束 Bundle
+     */
+    public void close() {
+        if (!open) {
+            return;
+        }
+        sendDelimiter();
+        open = false;
+    }
+
+    /**
+     * 是否使用 Bundle(已啟用且客戶端支援)
+     *
+     * @return 使用 Bundle 時返回 true
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void sendDelimiter() {
+        PacketEvents.getAPI().getPlayerManager().sendPacket(viewer, new WrapperPlayServerBundle());
+    }
+
+    /**
+     * Bundle 封包從 1.19.4 開始支援
+     */
+    private static boolean supportsBundles(Player viewer) {
+        ClientVersion version = PacketEvents.getAPI().getPlayerManager().getClientVersion(viewer);
+        return version != null && version.isNewerThanOrEquals(ClientVersion.V_1_19_4);
+    }
+}
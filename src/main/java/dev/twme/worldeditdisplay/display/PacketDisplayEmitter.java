@@ -0,0 +1,137 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.bukkit.entity.Player;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import me.tofaa.entitylib.EntityLib;
+
+/**
+ * 純封包的線段發射器
+ *
+ * 每條線段只以 (實體 ID, UUID, 錨點) 表示，生成、metadata 與移除封包
+ * 直接透過 PacketEvents 建立，不建立 EntityLib 實體：
+ * - 沒有每個實體的 metadata 物件、觀察者集合與位置物件
+ * - 不註冊到 EntityLib 的追蹤與 tick
+ *
+ * 選區渲染只有一個觀察者且不會移動，因此不需要 EntityLib 提供的狀態管理
+ */
+public class PacketDisplayEmitter extends AbstractLineEmitter<PacketDisplayEmitter.DisplayLine> {
+
+    public PacketDisplayEmitter(WorldEditDisplay plugin, Player player) {
+        super(plugin, player);
+    }
+
+    @Override
+    protected DisplayLine spawnLine(LineBuffer lines, int index) {
+        UUID uuid = UUID.randomUUID();
+        // 使用 EntityLib 的 ID 來源，避免與其他後端的實體 ID 衝突
+        int entityId = EntityLib.getPlatform().getEntityIdProvider().provide(uuid, EntityTypes.ITEM_DISPLAY);
+        DisplayLine handle = new DisplayLine(entityId, uuid,
+                anchorLocation.getX(), anchorLocation.getY(), anchorLocation.getZ());
+
+        // 生成封包 + metadata 封包
+        packetBundle.track(2);
+        send(new WrapperPlayServerSpawnEntity(
+                entityId,
+                Optional.of(uuid),
+                EntityTypes.ITEM_DISPLAY,
+                new Vector3d(handle.anchorX, handle.anchorY, handle.anchorZ),
+                0f, 0f, 0f,
+                0,
+                Optional.empty()
+        ));
+        send(new WrapperPlayServerEntityMetadata(entityId,
+                createLineEntries(handle.anchorX, handle.anchorY, handle.anchorZ, lines, index)));
+        return handle;
+    }
+
+    @Override
+    protected void updateLine(DisplayLine handle, LineBuffer lines, int index) {
+        teleportIfFar(handle);
+        sendLine(handle, lines, index);
+    }
+
+    @Override
+    protected boolean reanchorLine(DisplayLine handle, LineBuffer lines, int index) {
+        if (!teleportIfFar(handle)) {
+            return false;
+        }
+        sendLine(handle, lines, index);
+        return true;
+    }
+
+    /**
+     * 發送線段的 metadata(平移量以實體目前的錨點為基準)
+     */
+    private void sendLine(DisplayLine handle, LineBuffer lines, int index) {
+        packetBundle.track(1);
+        send(new WrapperPlayServerEntityMetadata(handle.entityId,
+                createLineEntries(handle.anchorX, handle.anchorY, handle.anchorZ, lines, index)));
+    }
+
+    /**
+     * 錨點離玩家太遠時傳送到玩家腳下
+     *
+     * @return 傳送了實體時返回 true
+     */
+    private boolean teleportIfFar(DisplayLine handle) {
+        if (!isFarFromAnchor(handle.anchorX, handle.anchorY, handle.anchorZ)) {
+            return false;
+        }
+        handle.anchorX = anchorLocation.getX();
+        handle.anchorY = anchorLocation.getY();
+        handle.anchorZ = anchorLocation.getZ();
+
+        packetBundle.track(1);
+        send(new WrapperPlayServerEntityTeleport(handle.entityId,
+                new Vector3d(handle.anchorX, handle.anchorY, handle.anchorZ), 0f, 0f, false));
+        return true;
+    }
+
+    @Override
+    protected void destroyLine(DisplayLine handle) {
+        destroyBatch.add(player, handle.entityId);
+    }
+
+    private void send(PacketWrapper<?> packet) {
+        PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
+    }
+
+    /**
+     * 客戶端上的一個線段實體
+     */
+    public static final class DisplayLine {
+        private final int entityId;
+        private final UUID uuid;
+        private double anchorX;
+        private double anchorY;
+        private double anchorZ;
+
+        private DisplayLine(int entityId, UUID uuid, double anchorX, double anchorY, double anchorZ) {
+            this.entityId = entityId;
+            this.uuid = uuid;
+            this.anchorX = anchorX;
+            this.anchorY = anchorY;
+            this.anchorZ = anchorZ;
+        }
+
+        public int getEntityId() {
+            return entityId;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+    }
+}
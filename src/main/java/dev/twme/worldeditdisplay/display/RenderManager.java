@@ -1,7 +1,13 @@
 package dev.twme.worldeditdisplay.display;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
@@ -9,6 +15,7 @@ import java.util.logging.Level;
 import dev.twme.worldeditdisplay.WorldEditDisplay;
 import org.bukkit.entity.Player;
 
+import dev.twme.worldeditdisplay.config.RenderSettings;
 import dev.twme.worldeditdisplay.display.renderer.CuboidRenderer;
 import dev.twme.worldeditdisplay.display.renderer.CylinderRenderer;
 import dev.twme.worldeditdisplay.display.renderer.EllipsoidRenderer;
@@ -29,27 +36,63 @@ import dev.twme.worldeditdisplay.region.Region;
  * 職責:
  * 1. 為每個玩家維護渲染器實例
  * 2. 根據選區類型選擇正確的渲染器
- * 3. 處理渲染器的生命週期(創建/更新/清理)
+ * 3. 處理渲染器的生命週期(創建/更新/清理/重用)
  * 4. 提供統一的渲染 API
+ * 
+ * 渲染分為提交與發送：選區變更時只重新計算線段並提交給渲染器，
+ * 實體封包由 {@link RenderScheduler} 依每 tick 的預算分批發送
+ * 
+ * 執行緒: 渲染器只在玩家的序列執行器上操作({@link dev.twme.worldeditdisplay.event.CUIMessageProcessor#execute})，
+ * 不依賴伺服器主執行緒，因此在 Folia 上同樣適用
  */
-public class RenderManager {
+public final class RenderManager {
+    
+    // 發送多少個生成與更新操作後檢查一次連線是否可寫
+    private static final int WRITABILITY_CHECK_INTERVAL = 256;
     
     private final WorldEditDisplay plugin;
     
     // 玩家 UUID -> 主選區渲染器
-    private final Map<UUID, RegionRenderer> mainRenderers;
+    private final Map<UUID, RegionRenderer<?>> mainRenderers;
     
     // 玩家 UUID -> (選區 UUID -> 多選區渲染器)
-    private final Map<UUID, Map<UUID, RegionRenderer>> multiRenderers;
+    private final Map<UUID, Map<UUID, RegionRenderer<?>>> multiRenderers;
+    
+    // 玩家 UUID -> (選區類型 -> 閒置的渲染器)，切換回曾使用過的選區類型時重用
+    private final Map<UUID, Map<Class<? extends Region>, Deque<RegionRenderer<?>>>> idleRenderers;
+    
+    // 選區類型 -> 渲染器工廠
+    private final Map<Class<? extends Region>, RendererFactory<?>> rendererFactories;
+    
+    // 玩家 UUID -> 等待渲染的請求(同一個 tick 內的多個 CUI 事件合併為一次渲染)
+    private final Map<UUID, PendingRender> pendingRenders;
+    
+    // 分配每 tick 的實體操作預算
+    private final RenderScheduler renderScheduler;
     
-    // 渲染器類型映射
-    private final Map<Class<? extends Region>, Class<? extends RegionRenderer>> rendererTypes;
+    // 依伺服器負載調整渲染品質
+    private final RenderQualityMonitor qualityMonitor;
+    
+    // 玩家連線不可寫時暫停發送
+    private final ChannelBackpressure channelBackpressure;
+    
+    // 每個玩家的渲染頻率上限
+    private final RenderRateLimiter rateLimiter;
+    
+    // 最近一次處理等待請求時，因頻率上限延後的玩家數量
+    private volatile int rateLimitedCount;
     
     public RenderManager(WorldEditDisplay plugin) {
         this.plugin = plugin;
         this.mainRenderers = new ConcurrentHashMap<>();
         this.multiRenderers = new ConcurrentHashMap<>();
-        this.rendererTypes = new HashMap<>();
+        this.idleRenderers = new ConcurrentHashMap<>();
+        this.rendererFactories = new HashMap<>();
+        this.pendingRenders = new ConcurrentHashMap<>();
+        this.renderScheduler = new RenderScheduler(plugin, this);
+        this.qualityMonitor = new RenderQualityMonitor(plugin, this);
+        this.channelBackpressure = new ChannelBackpressure();
+        this.rateLimiter = new RenderRateLimiter();
         
         // 註冊渲染器類型
         registerRendererTypes();
@@ -61,13 +104,133 @@ public class RenderManager {
      * 註冊各種選區類型對應的渲染器
      */
     private void registerRendererTypes() {
-        rendererTypes.put(CuboidRegion.class, CuboidRenderer.class);
-        rendererTypes.put(PolygonRegion.class, PolygonRenderer.class);
-        rendererTypes.put(EllipsoidRegion.class, EllipsoidRenderer.class);
-        rendererTypes.put(CylinderRegion.class, CylinderRenderer.class);
-        rendererTypes.put(PolyhedronRegion.class, PolyhedronRenderer.class);
+        registerRenderer(CuboidRegion.class, CuboidRenderer::new);
+        registerRenderer(PolygonRegion.class, PolygonRenderer::new);
+        registerRenderer(EllipsoidRegion.class, EllipsoidRenderer::new);
+        registerRenderer(CylinderRegion.class, CylinderRenderer::new);
+        registerRenderer(PolyhedronRegion.class, PolyhedronRenderer::new);
+        
+        plugin.getLogger().info("Registered " + rendererFactories.size() + " renderer types");
+    }
+    
+    /**
+     * 註冊選區類型對應的渲染器工廠
+     * 
+     * @param regionType 選區類型
+     * @param factory 渲染器工廠
+     * @param <T> 選區類型
+     */
+    public <T extends Region> void registerRenderer(Class<T> regionType, RendererFactory<T> factory) {
+        rendererFactories.put(regionType, factory);
+    }
+    
+    /**
+     * 請求重新渲染玩家的選區
+     * 
+     * 不會立即渲染，只標記玩家需要更新。WorldEdit 每次選區變更會連續發送多個 CUI 訊息
+     * (例如 s|cuboid、p|0、p|1)，合併後只會在下一個 tick(或設定的靜止時間後)渲染一次，
+     * 避免渲染只有一半的選區後又立即移除
+     * 
+     * @param player 目標玩家
+     */
+    public void requestRender(Player player) {
+        long now = System.nanoTime();
+        pendingRenders.compute(player.getUniqueId(), (id, pending) -> {
+            if (pending == null) {
+                return new PendingRender(player, now);
+            }
+            pending.lastRequestNanos = now;
+            return pending;
+        });
+    }
+    
+    /**
+     * 請求重新渲染所有有活動渲染的玩家(例如渲染品質變更後)
+     */
+    public void requestRenderAll() {
+        Set<UUID> playerIds = new HashSet<>(mainRenderers.keySet());
+        multiRenderers.forEach((playerId, renderers) -> {
+            if (!renderers.isEmpty()) {
+                playerIds.add(playerId);
+            }
+        });
         
-        plugin.getLogger().info("Registered " + rendererTypes.size() + " renderer types");
+        for (UUID playerId : playerIds) {
+            Player player = plugin.getServer().getPlayer(playerId);
+            if (player != null) {
+                requestRender(player);
+            }
+        }
+    }
+    
+    /**
+     * 處理等待中的渲染請求，每個 tick 由 {@link RenderScheduler} 呼叫一次
+     * 
+     * 靜止時間已經過的玩家會在自己的序列執行器上執行一次 {@link #updateRender(Player)}
+     * 
+     * 超過渲染頻率上限的玩家保留等待中的請求，之後的 CUI 事件繼續合併到同一個請求，
+     * 有令牌時只渲染最新的選區，中間的選區狀態不會渲染
+     */
+    public void flushPendingRenders() {
+        if (pendingRenders.isEmpty()) {
+            rateLimitedCount = 0;
+            return;
+        }
+        
+        RenderSettings settings = plugin.getRenderSettings();
+        long quietNanos = settings.getRenderQuietPeriodMillis() * 1_000_000L;
+        double rendersPerSecond = settings.getRenderRateLimitPerSecond();
+        int burst = settings.getRenderRateLimitBurst();
+        long now = System.nanoTime();
+        int limited = 0;
+        
+        for (Map.Entry<UUID, PendingRender> entry : pendingRenders.entrySet()) {
+            PendingRender pending = entry.getValue();
+            if (now - pending.lastRequestNanos < quietNanos) {
+                continue;
+            }
+            
+            // 已離線的玩家由離線清理移除請求，不建立令牌桶
+            Player player = pending.player;
+            if (!player.isOnline()) {
+                pendingRenders.remove(entry.getKey(), pending);
+                continue;
+            }
+            
+            // 令牌在實際提交線段後才扣除(見 updateRender)
+            PlayerData playerData = PlayerData.getPlayerData(player);
+            boolean bypass = playerData != null && playerData.isRateLimitBypass();
+            if (!bypass && !rateLimiter.hasToken(entry.getKey(), rendersPerSecond, burst, now)) {
+                limited++;
+                continue;
+            }
+            
+            // 只有在期間沒有新請求時才移除(新請求會更新同一個物件的時間)
+            if (!pendingRenders.remove(entry.getKey(), pending)) {
+                continue;
+            }
+            
+            // 發射順序依玩家位置排序，位置必須在擁有玩家的執行緒上讀取
+            plugin.getPlatformScheduler().executeForPlayer(player, () -> {
+                captureRenderAnchor(player);
+                plugin.getCUIMessageProcessor().execute(player.getUniqueId(), () -> updateRender(player));
+            }, null);
+        }
+        rateLimitedCount = limited;
+    }
+    
+    /**
+     * 擷取玩家目前的位置，作為之後排序與生成線段的錨點
+     * 
+     * 只能在擁有玩家的執行緒上呼叫，序列執行器透過 {@link PlayerData#getRenderAnchor()} 讀取
+     * 
+     * @param player 玩家
+     */
+    void captureRenderAnchor(Player player) {
+        PlayerData playerData = PlayerData.getPlayerData(player.getUniqueId());
+        if (playerData != null) {
+            playerData.captureRenderAnchor();
+        }
     }
     
     /**
@@ -76,6 +239,8 @@ public class RenderManager {
      * 1. 渲染主選區 (this.selection)
      * 2. 渲染所有多選區 (this.regions)
      * 
+     * 只計算並提交線段，實體封包交由 {@link RenderScheduler} 在之後的 tick 發送
+     * 
      * @param player 目標玩家
      */
     public void updateRender(Player player) {
@@ -95,35 +260,195 @@ public class RenderManager {
             return;
         }
         
-        // 1. 渲染主選區
+        // 不再使用的渲染器的移除封包立即發送
+        EntityDestroyBatch destroyBatch = new EntityDestroyBatch();
+        boolean submitted = submitSelections(player, playerData, destroyBatch);
+        destroyBatch.flush();
+        
+        // 選區沒有變化(全部已是最新)時不消耗令牌
+        if (submitted && !playerData.isRateLimitBypass()) {
+            rateLimiter.consume(playerId);
+        }
+        
+        renderScheduler.schedule(player);
+    }
+    
+    /**
+     * 提交玩家的主選區與所有多選區
+     * 
+     * @return 是否有任何選區重新計算並提交了線段
+     */
+    private boolean submitSelections(Player player, PlayerData playerData, EntityDestroyBatch destroyBatch) {
+        UUID playerId = player.getUniqueId();
+        
+        // 1. 提交主選區
         Region mainSelection = playerData.getSelection();
-        updateMainSelection(player, playerId, mainSelection);
+        boolean submitted = updateMainSelection(player, playerId, mainSelection, destroyBatch);
         
-        // 2. 渲染所有多選區
+        // 2. 提交所有多選區
         Map<UUID, Region> multiRegions = playerData.getMultiRegions();
-        updateMultiSelections(player, playerId, multiRegions);
+        submitted |= updateMultiSelections(player, playerId, multiRegions, destroyBatch);
+        return submitted;
+    }
+    
+    /**
+     * 選區內容或渲染品質改變時才重新計算並提交線段
+     * 
+     * @return 是否提交了線段
+     */
+    private static <T extends Region> boolean submitIfChanged(RegionRenderer<T> renderer, Region region) {
+        T typed = renderer.getRegionType().cast(region);
+        if (renderer.isUpToDate(typed)) {
+            return false;
+        }
+        renderer.submit(typed);
+        return true;
+    }
+    
+    /**
+     * 發送玩家已提交但尚未顯示的線段，由 {@link RenderScheduler} 在玩家的序列執行器上呼叫
+     * 
+     * 依主選區、多選區的順序消耗預算，用完後剩餘的線段留到下一次。
+     * 每發送 {@link #WRITABILITY_CHECK_INTERVAL} 個操作檢查一次玩家連線是否可寫，
+     * 不可寫時暫停發送，剩餘的線段等連線恢復後再繼續；
+     * 暫停期間提交的新線段會直接取代尚未發送的舊線段
+     * 
+     * 使用 Bundle 時每次呼叫發送的封包包在一個 Bundle 中，預算用完或連線不可寫而提前停止時
+     * 同樣會結束 Bundle。預算內能完成的渲染在客戶端同一幀內交換；
+     * 超出預算的渲染分成多個 Bundle，在之後的 tick 逐步補上(近的線段與外框先出現)
+     * 
+     * @param player 目標玩家
+     * @param budget 本次最多可執行的生成與更新數量
+     * @return 是否還有未完成的工作
+     */
+    boolean flushRender(Player player, int budget) {
+        UUID playerId = player.getUniqueId();
+        if (!player.isOnline()) {
+            return false;
+        }
+        
+        List<RegionRenderer<?>> renderers = getRenderers(playerId);
+        if (!channelBackpressure.isWritable(player)) {
+            return hasPendingWork(renderers);
+        }
+        
+        EntityDestroyBatch destroyBatch = new EntityDestroyBatch();
+        PacketBundle bundle = createBundle(player);
+        int remaining = budget;
+        
+        bundle.open();
+        try {
+            flush:
+            for (RegionRenderer<?> renderer : renderers) {
+                while (remaining > 0 && renderer.hasPendingWork()) {
+                    int done = flushRenderer(player, renderer, destroyBatch, bundle,
+                            Math.min(remaining, WRITABILITY_CHECK_INTERVAL));
+                    remaining -= done;
+                    
+                    if (!channelBackpressure.isWritable(player)) {
+                        break flush;
+                    }
+                    // 只剩移除操作時一次就會完成
+                    if (done == 0) {
+                        break;
+                    }
+                }
+            }
+            
+            // 提前停止時也要送出已收集的移除並結束 Bundle，剩餘的工作由之後的 tick 繼續
+            flushDestroyBatch(destroyBatch, bundle);
+        } finally {
+            bundle.close();
+        }
+        
+        return hasPendingWork(renderers);
+    }
+    
+    /**
+     * 依主選區、多選區的順序獲取玩家的所有渲染器
+     */
+    private List<RegionRenderer<?>> getRenderers(UUID playerId) {
+        List<RegionRenderer<?>> renderers = new ArrayList<>();
+        RegionRenderer<?> mainRenderer = mainRenderers.get(playerId);
+        if (mainRenderer != null) {
+            renderers.add(mainRenderer);
+        }
+        
+        Map<UUID, RegionRenderer<?>> playerMultiRenderers = multiRenderers.get(playerId);
+        if (playerMultiRenderers != null) {
+            renderers.addAll(playerMultiRenderers.values());
+        }
+        return renderers;
+    }
+    
+    private static boolean hasPendingWork(List<RegionRenderer<?>> renderers) {
+        for (RegionRenderer<?> renderer : renderers) {
+            if (renderer.hasPendingWork()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 發送單一渲染器的線段，失敗時清除該渲染器避免每個 tick 重試
+     * 
+     * @return 實際執行的生成與更新數量
+     */
+    private int flushRenderer(Player player, RegionRenderer<?> renderer, EntityDestroyBatch destroyBatch,
+                              PacketBundle bundle, int budget) {
+        try {
+            return renderer.flush(destroyBatch, bundle, budget);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Selection rendering failed: " + player.getName(), e);
+            renderer.clear(destroyBatch);
+            return 0;
+        }
+    }
+    
+    /**
+     * 建立玩家的封包組
+     * 
+     * 啟用雙緩衝時，一次更新的所有生成、更新與移除封包會包在同一個 Bundle 中，
+     * 客戶端會在同一幀內從舊選區切換到新選區
+     */
+    private PacketBundle createBundle(Player player) {
+        return new PacketBundle(player, plugin.getRenderSettings().isDoubleBuffered());
+    }
+    
+    /**
+     * 發送移除封包(放在封包組的最後，舊線段在新線段生成後才消失)
+     */
+    private void flushDestroyBatch(EntityDestroyBatch destroyBatch, PacketBundle bundle) {
+        if (!destroyBatch.isEmpty()) {
+            bundle.track(1);
+        }
+        destroyBatch.flush();
     }
     
     /**
      * 更新主選區渲染
+     * 
+     * @return 是否提交了線段
      */
-    private void updateMainSelection(Player player, UUID playerId, Region mainSelection) {
-        RegionRenderer currentRenderer = mainRenderers.get(playerId);
+    private boolean updateMainSelection(Player player, UUID playerId, Region mainSelection,
+                                     EntityDestroyBatch destroyBatch) {
+        RegionRenderer<?> currentRenderer = mainRenderers.get(playerId);
         
         // 如果沒有主選區，清除主選區渲染
         if (mainSelection == null) {
             if (currentRenderer != null) {
-                currentRenderer.clear();
                 mainRenderers.remove(playerId);
+                releaseRenderer(playerId, currentRenderer, destroyBatch);
             }
-            return;
+            return false;
         }
         
         // 檢查是否需要切換渲染器類型
         if (currentRenderer != null) {
             if (!currentRenderer.getRegionType().equals(mainSelection.getClass())) {
-                currentRenderer.clear();
                 mainRenderers.remove(playerId);
+                releaseRenderer(playerId, currentRenderer, destroyBatch);
                 currentRenderer = null;
             }
         }
@@ -135,33 +460,37 @@ public class RenderManager {
                 mainRenderers.put(playerId, currentRenderer);
             } else {
                 plugin.getLogger().warning("Failed to create renderer for region type: " + mainSelection.getClass().getSimpleName());
-                return;
+                return false;
             }
         }
         
-        // 執行渲染
+        // 提交線段
         try {
-            currentRenderer.render(mainSelection);
+            return submitIfChanged(currentRenderer, mainSelection);
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Main selection rendering failed: " + player.getName(), e);
+            return false;
         }
     }
     
     /**
      * 更新多選區渲染
+     * 
+     * @return 是否有任何多選區提交了線段
      */
-    private void updateMultiSelections(Player player, UUID playerId, Map<UUID, Region> multiRegions) {
+    private boolean updateMultiSelections(Player player, UUID playerId, Map<UUID, Region> multiRegions,
+                                       EntityDestroyBatch destroyBatch) {
         // 獲取或創建玩家的多選區渲染器映射
-        Map<UUID, RegionRenderer> playerMultiRenderers = multiRenderers.computeIfAbsent(
+        Map<UUID, RegionRenderer<?>> playerMultiRenderers = multiRenderers.computeIfAbsent(
             playerId, k -> new ConcurrentHashMap<>()
         );
         
         // 找出需要移除的渲染器（不再存在的選區）
         playerMultiRenderers.keySet().removeIf(regionId -> {
             if (!multiRegions.containsKey(regionId)) {
-                RegionRenderer renderer = playerMultiRenderers.remove(regionId);
+                RegionRenderer<?> renderer = playerMultiRenderers.remove(regionId);
                 if (renderer != null) {
-                    renderer.clear();
+                    releaseRenderer(playerId, renderer, destroyBatch);
                 }
                 return true;
             }
@@ -169,6 +498,7 @@ public class RenderManager {
         });
         
         // 更新或創建每個多選區的渲染
+        boolean submitted = false;
         for (Map.Entry<UUID, Region> entry : multiRegions.entrySet()) {
             UUID regionId = entry.getKey();
             Region region = entry.getValue();
@@ -177,13 +507,13 @@ public class RenderManager {
                 continue;
             }
             
-            RegionRenderer renderer = playerMultiRenderers.get(regionId);
+            RegionRenderer<?> renderer = playerMultiRenderers.get(regionId);
             
             // 檢查是否需要切換渲染器類型
             if (renderer != null) {
                 if (!renderer.getRegionType().equals(region.getClass())) {
-                    renderer.clear();
                     playerMultiRenderers.remove(regionId);
+                    releaseRenderer(playerId, renderer, destroyBatch);
                     renderer = null;
                 }
             }
@@ -199,62 +529,101 @@ public class RenderManager {
                 }
             }
             
-            // 執行渲染
+            // 提交線段
             try {
-                renderer.render(region);
+                submitted |= submitIfChanged(renderer, region);
             } catch (Exception e) {
                 plugin.getLogger().log(Level.SEVERE, "Multi-selection rendering failed: " + player.getName(), e);
             }
         }
+        return submitted;
     }
     
     /**
      * 清除玩家的所有渲染實體
+     * 主選區與所有多選區的實體會在同一個移除封包中清除
      * 
      * @param playerId 玩家 UUID
      */
     public void clearRender(UUID playerId) {
+        EntityDestroyBatch destroyBatch = new EntityDestroyBatch();
+        clearRender(playerId, destroyBatch);
+        destroyBatch.flush();
+    }
+    
+    /**
+     * 清除玩家的所有渲染實體，將實體 ID 加入指定的批次
+     * 
+     * @param playerId 玩家 UUID
+     * @param destroyBatch 移除批次
+     */
+    private void clearRender(UUID playerId, EntityDestroyBatch destroyBatch) {
         // 清除主選區渲染
-        RegionRenderer mainRenderer = mainRenderers.remove(playerId);
+        RegionRenderer<?> mainRenderer = mainRenderers.remove(playerId);
         if (mainRenderer != null) {
-            mainRenderer.clear();
+            mainRenderer.clear(destroyBatch);
         }
         
         // 清除所有多選區渲染
-        Map<UUID, RegionRenderer> playerMultiRenderers = multiRenderers.remove(playerId);
+        Map<UUID, RegionRenderer<?>> playerMultiRenderers = multiRenderers.remove(playerId);
         if (playerMultiRenderers != null) {
-            playerMultiRenderers.values().forEach(RegionRenderer::clear);
+            playerMultiRenderers.values().forEach(renderer -> renderer.clear(destroyBatch));
             playerMultiRenderers.clear();
         }
+        
+        // 閒置的渲染器已經沒有實體，直接丟棄
+        idleRenderers.remove(playerId);
+        pendingRenders.remove(playerId);
+        renderScheduler.cancel(playerId);
+        channelBackpressure.remove(playerId);
     }
     
     /**
      * 清除所有玩家的渲染
+     * 每個玩家只會收到一個移除封包
      */
     public void clearAllRenders() {
+        EntityDestroyBatch destroyBatch = new EntityDestroyBatch();
+        
         // 清除主選區
-        mainRenderers.values().forEach(RegionRenderer::clear);
+        mainRenderers.values().forEach(renderer -> renderer.clear(destroyBatch));
         mainRenderers.clear();
         
         // 清除多選區
         multiRenderers.values().forEach(playerRenderers -> {
-            playerRenderers.values().forEach(RegionRenderer::clear);
+            playerRenderers.values().forEach(renderer -> renderer.clear(destroyBatch));
             playerRenderers.clear();
         });
         multiRenderers.clear();
+        idleRenderers.clear();
+        pendingRenders.clear();
+        renderScheduler.cancelAll();
+        channelBackpressure.clear();
+        rateLimiter.clear();
+        
+        destroyBatch.flush();
     }
     
     /**
-     * 根據選區類型創建對應的渲染器
+     * 根據選區類型獲取渲染器
+     * 優先重用玩家曾使用過的同類型渲染器，沒有時才透過工廠建立
      * 
      * @param player 玩家
      * @param region 選區
      * @return 渲染器實例,如果無法創建則返回 null
      */
-    private RegionRenderer createRenderer(Player player, Region region) {
-        Class<? extends RegionRenderer> rendererClass = rendererTypes.get(region.getClass());
+    private RegionRenderer<?> createRenderer(Player player, Region region) {
+        Map<Class<? extends Region>, Deque<RegionRenderer<?>>> playerIdle = idleRenderers.get(player.getUniqueId());
+        if (playerIdle != null) {
+            Deque<RegionRenderer<?>> idle = playerIdle.get(region.getClass());
+            if (idle != null && !idle.isEmpty()) {
+                return idle.poll();
+            }
+        }
         
-        if (rendererClass == null) {
+        RendererFactory<?> factory = rendererFactories.get(region.getClass());
+        
+        if (factory == null) {
             plugin.getLogger().warning("Renderer type not found: " + region.getClass().getSimpleName());
             return null;
         }
@@ -263,23 +632,34 @@ public class RenderManager {
             // 獲取玩家設定
             var playerSettings = plugin.getPlayerSettingsManager().getSettings(player.getUniqueId());
             
-            // 使用反射創建渲染器實例，並傳入玩家設定
-            return rendererClass
-                .getConstructor(WorldEditDisplay.class, Player.class, dev.twme.worldeditdisplay.config.PlayerRenderSettings.class)
-                .newInstance(plugin, player, playerSettings);
+            return factory.create(plugin, player, playerSettings);
         } catch (Exception e) {
-            plugin.getLogger().log(Level.SEVERE, "Failed to create renderer: " + rendererClass.getSimpleName(), e);
+            plugin.getLogger().log(Level.SEVERE, "Failed to create renderer: " + region.getClass().getSimpleName(), e);
             return null;
         }
     }
     
+    /**
+     * 清除渲染器的實體並放回閒置池，供之後切換回同類型選區時重用
+     * 
+     * @param playerId 玩家 UUID
+     * @param renderer 不再使用的渲染器
+     * @param destroyBatch 移除批次
+     */
+    private void releaseRenderer(UUID playerId, RegionRenderer<?> renderer, EntityDestroyBatch destroyBatch) {
+        renderer.clear(destroyBatch);
+        idleRenderers.computeIfAbsent(playerId, k -> new ConcurrentHashMap<>())
+            .computeIfAbsent(renderer.getRegionType(), k -> new ArrayDeque<>())
+            .push(renderer);
+    }
+    
     /**
      * 獲取玩家當前的主選區渲染器
      * 
      * @param playerId 玩家 UUID
      * @return 渲染器實例,如果不存在則返回 null
      */
-    public RegionRenderer getRenderer(UUID playerId) {
+    public RegionRenderer<?> getRenderer(UUID playerId) {
         return mainRenderers.get(playerId);
     }
     
@@ -309,11 +689,100 @@ public class RenderManager {
         return mainCount + multiCount;
     }
     
+    /**
+     * 玩家移動到另一個區塊後，在序列執行器上重新錨定已顯示的線段
+     * 
+     * 內容不變的線段不會重新發送，實體一直留在生成時的錨點；
+     * 玩家走遠後由此把離玩家太遠的實體傳送到玩家附近。
+     * 呼叫前應先以 {@link PlayerData#captureRenderAnchor} 更新玩家位置
+     * 
+     * @param player 玩家
+     */
+    public void requestReanchor(Player player) {
+        UUID playerId = player.getUniqueId();
+        if (!mainRenderers.containsKey(playerId) && !multiRenderers.containsKey(playerId)) {
+            return;
+        }
+        plugin.getCUIMessageProcessor().execute(playerId, () -> reanchorRender(player));
+    }
+    
+    /**
+     * 傳送錨點離玩家太遠的實體，傳送的數量計入 {@link RenderScheduler} 的透支
+     */
+    private void reanchorRender(Player player) {
+        if (!player.isOnline()) {
+            return;
+        }
+        
+        PacketBundle bundle = createBundle(player);
+        int moved = 0;
+        bundle.open();
+        try {
+            for (RegionRenderer<?> renderer : getRenderers(player.getUniqueId())) {
+                moved += renderer.reanchor(bundle);
+            }
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to re-anchor selection: " + player.getName(), e);
+        } finally {
+            bundle.close();
+        }
+        
+        if (moved > 0) {
+            renderScheduler.addOverdraft(moved);
+        }
+    }
+    
+    /**
+     * 獲取渲染排程器
+     * 
+     * @return 渲染排程器
+     */
+    public RenderScheduler getRenderScheduler() {
+        return renderScheduler;
+    }
+    
+    /**
+     * 獲取渲染品質監控
+     * 
+     * @return 渲染品質監控
+     */
+    public RenderQualityMonitor getQualityMonitor() {
+        return qualityMonitor;
+    }
+    
+    /**
+     * 獲取連線背壓狀態
+     * 
+     * @return 連線背壓狀態
+     */
+    public ChannelBackpressure getChannelBackpressure() {
+        return channelBackpressure;
+    }
+    
+    /**
+     * 獲取渲染頻率限制
+     * 
+     * @return 渲染頻率限制
+     */
+    public RenderRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+    
+    /**
+     * 獲取最近一個 tick 因渲染頻率上限而延後渲染的玩家數量
+     * 
+     * @return 玩家數量
+     */
+    public int getRateLimitedCount() {
+        return rateLimitedCount;
+    }
+    
     /**
      * 關閉渲染管理器,清理所有資源
      */
     public void shutdown() {
         plugin.getLogger().info("Shutting down RenderManager...");
+        renderScheduler.shutdown();
         clearAllRenders();
     }
     
@@ -325,12 +794,29 @@ public class RenderManager {
     public void refreshPlayerRenderer(Player player) {
         UUID playerId = player.getUniqueId();
         
-        // 清除當前渲染
+        PlayerData playerData = PlayerData.getPlayerData(player);
+        
+        // 清除當前渲染(渲染器會以新的設定重新建立)
         clearRender(playerId);
         
         // 重新渲染
-        updateRender(player);
+        if (playerData != null && playerData.isRenderingEnabled()) {
+            updateRender(player);
+        }
         
         plugin.getLogger().fine(String.format("Refreshed renderer for player %s", player.getName()));
     }
+    
+    /**
+     * 等待中的渲染請求
+     */
+    private static final class PendingRender {
+        private final Player player;
+        private volatile long lastRequestNanos;
+        
+        private PendingRender(Player player, long lastRequestNanos) {
+            this.player = player;
+            this.lastRequestNanos = lastRequestNanos;
+        }
+    }
 }
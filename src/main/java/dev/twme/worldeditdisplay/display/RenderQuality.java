@@ -0,0 +1,104 @@
+package dev.twme.worldeditdisplay.display;
+
+/**
+ * 渲染品質等級
+ *
+ * 伺服器負載過高時由 {@link RenderQualityMonitor} 逐級降低，只影響裝飾用的網格與圓環密度，
+ * 選區的輪廓在任何等級都會完整顯示
+ */
+public enum RenderQuality {
+
+    /**
+     * 完整品質
+     */
+    FULL(1, 1, true),
+
+    /**
+     * 網格間距加倍
+     */
+    REDUCED_GRID(2, 1, true),
+
+    /**
+     * 網格間距加倍，橢圓與圓環的分段數減半
+     */
+    REDUCED_SEGMENTS(2, 2, true),
+
+    /**
+     * 不渲染網格，只保留輪廓
+     */
+    NO_GRID(2, 2, false);
+
+    // 降低分段數時的下限，避免圓環變成明顯的多邊形
+    private static final int MIN_REDUCED_SEGMENTS = 8;
+
+    private final int gridStepMultiplier;
+    private final int segmentDivisor;
+    private final boolean gridEnabled;
+
+    RenderQuality(int gridStepMultiplier, int segmentDivisor, boolean gridEnabled) {
+        this.gridStepMultiplier = gridStepMultiplier;
+        this.segmentDivisor = segmentDivisor;
+        this.gridEnabled = gridEnabled;
+    }
+
+    /**
+     * 依品質調整網格步長或間距
+     *
+     * @param step 完整品質下的步長
+     * @return 調整後的步長
+     */
+    public int applyGridStep(int step) {
+        return step * gridStepMultiplier;
+    }
+
+    /**
+     * 依品質調整網格間距
+     *
+     * @param spacing 完整品質下的間距
+     * @return 調整後的間距
+     */
+    public double applyGridSpacing(double spacing) {
+        return spacing * gridStepMultiplier;
+    }
+
+    /**
+     * 依品質調整橢圓或圓環的分段數，降低後不少於 {@link #MIN_REDUCED_SEGMENTS}
+     *
+     * @param segments 完整品質下的分段數
+     * @return 調整後的分段數
+     */
+    public int applySegments(int segments) {
+        if (segmentDivisor == 1) {
+            return segments;
+        }
+        return Math.max(Math.min(segments, MIN_REDUCED_SEGMENTS), segments / segmentDivisor);
+    }
+
+    /**
+     * 是否渲染網格與中間的圓環
+     *
+     * @return 渲染網格時返回 true
+     */
+    public boolean isGridEnabled() {
+        return gridEnabled;
+    }
+
+    /**
+     * 低一級的品質(已是最低時返回自己)
+     *
+     * @return 品質等級
+     */
+    public RenderQuality lower() {
+        RenderQuality[] values = values();
+        return values[Math.min(ordinal() + 1, values.length - 1)];
+    }
+
+    /**
+     * 高一級的品質(已是最高時返回自己)
+     *
+     * @return 品質等級
+     */
+    public RenderQuality higher() {
+        return values()[Math.max(ordinal() - 1, 0)];
+    }
+}
@@ -0,0 +1,110 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.List;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.config.RenderSettings;
+
+/**
+ * 渲染品質監控 - 依伺服器的 MSPT 自動調整 {@link RenderQuality}
+ *
+ * 每隔 performance.adaptive_quality.check_interval_ticks 檢查一次 Paper 的平均 tick 時間:
+ * - 超過目前等級的降級門檻時降低一級
+ * - 低於上一級門檻減去回復餘量時提高一級
+ *
+ * 每次只移動一級，且回復需要低於門檻一段餘量(遲滯)，避免在門檻附近來回切換
+ */
+public class RenderQualityMonitor {
+
+    private final WorldEditDisplay plugin;
+    private final RenderManager renderManager;
+
+    // 目前等級(渲染器在各玩家的執行緒上讀取)
+    private volatile RenderQuality level = RenderQuality.FULL;
+
+    // 最近一次讀取的 MSPT
+    private volatile double lastMspt;
+
+    private int ticksSinceCheck;
+
+    // 伺服器不提供平均 tick 時間時停用自動調整(只記錄一次)
+    private boolean unsupported;
+
+    public RenderQualityMonitor(WorldEditDisplay plugin, RenderManager renderManager) {
+        this.plugin = plugin;
+        this.renderManager = renderManager;
+    }
+
+    /**
+     * 每 tick 在全域執行緒呼叫
+     */
+    public void tick() {
+        RenderSettings settings = plugin.getRenderSettings();
+        if (!settings.isAdaptiveQualityEnabled() || unsupported) {
+            if (level != RenderQuality.FULL) {
+                setLevel(RenderQuality.FULL);
+            }
+            return;
+        }
+
+        if (++ticksSinceCheck < settings.getAdaptiveQualityCheckIntervalTicks()) {
+            return;
+        }
+        ticksSinceCheck = 0;
+
+        double mspt;
+        try {
+            mspt = plugin.getServer().getAverageTickTime();
+        } catch (UnsupportedOperationException e) {
+            // Folia 沒有全域的 tick 時間，停用自動調整並維持完整品質
+            unsupported = true;
+            plugin.getLogger().warning("Adaptive render quality is unavailable on this server "
+                    + "(no global tick time); rendering at full quality");
+            return;
+        }
+        lastMspt = mspt;
+
+        List<Double> thresholds = settings.getAdaptiveQualityDegradeMspt();
+        double margin = settings.getAdaptiveQualityRecoverMarginMspt();
+        int current = level.ordinal();
+
+        // 第 i 個門檻是進入等級 i + 1 的 MSPT
+        if (current < thresholds.size() && mspt >= thresholds.get(current)) {
+            setLevel(level.lower());
+        } else if (current > 0 && current - 1 < thresholds.size()
+                && mspt < thresholds.get(current - 1) - margin) {
+            setLevel(level.higher());
+        }
+    }
+
+    /**
+     * 切換等級並以新的品質重新渲染所有玩家
+     */
+    private void setLevel(RenderQuality newLevel) {
+        if (newLevel == level) {
+            return;
+        }
+
+        plugin.getLogger().info(String.format("Render quality %s -> %s (MSPT %.1f)", level, newLevel, lastMspt));
+        level = newLevel;
+        renderManager.requestRenderAll();
+    }
+
+    /**
+     * 獲取目前的渲染品質
+     *
+     * @return 品質等級
+     */
+    public RenderQuality getLevel() {
+        return level;
+    }
+
+    /**
+     * 獲取最近一次檢查時的 MSPT
+     *
+     * @return 平均 tick 時間(毫秒)
+     */
+    public double getLastMspt() {
+        return lastMspt;
+    }
+}
@@ -0,0 +1,91 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 渲染速率限制 - 每個玩家一個令牌桶，限制選區重新渲染的頻率
+ *
+ * 實際提交線段的渲染消耗一個令牌，令牌依 performance.render_rate_limit.renders_per_second 補充，
+ * 最多累積 burst 個。沒有令牌時渲染請求留在 {@link RenderManager} 的等待佇列中，
+ * 期間的 CUI 事件合併為同一個請求，補充令牌後只渲染最新的選區
+ *
+ * 令牌在全域執行緒上({@link RenderManager#flushPendingRenders()})檢查，
+ * 在玩家的序列執行器上提交線段後才扣除，因此選區沒有變化的渲染不會消耗令牌
+ */
+public class RenderRateLimiter {
+
+    // 玩家 UUID -> 令牌桶
+    private final Map<UUID, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * 補充玩家的令牌，並檢查是否至少有一個令牌，不會扣除令牌
+     *
+     * @param playerId 玩家 UUID
+     * @param rendersPerSecond 每秒補充的令牌數，0 或以下表示不限制
+     * @param burst 令牌上限
+     * @param now 目前時間(奈秒)
+     * @return 有令牌或不限制時返回 true
+     */
+    public boolean hasToken(UUID playerId, double rendersPerSecond, int burst, long now) {
+        if (rendersPerSecond <= 0) {
+            return true;
+        }
+
+        Bucket bucket = buckets.computeIfAbsent(playerId, id -> new Bucket(burst, now));
+        synchronized (bucket) {
+            double refilled = (now - bucket.lastRefillNanos) * rendersPerSecond / 1_000_000_000.0;
+            bucket.tokens = Math.min(burst, bucket.tokens + refilled);
+            bucket.lastRefillNanos = now;
+            return bucket.tokens >= 1.0;
+        }
+    }
+
+    /**
+     * 扣除玩家的一個令牌，在實際提交線段後呼叫
+     *
+     * 只扣除已存在的令牌桶，不會為已離線(已移除)的玩家重新建立；
+     * 令牌可能暫時低於 0，之後補充時會先償還
+     *
+     * @param playerId 玩家 UUID
+     */
+    public void consume(UUID playerId) {
+        Bucket bucket = buckets.get(playerId);
+        if (bucket == null) {
+            return;
+        }
+        synchronized (bucket) {
+            bucket.tokens -= 1.0;
+        }
+    }
+
+    /**
+     * 移除玩家的令牌桶
+     *
+     * @param playerId 玩家 UUID
+     */
+    public void remove(UUID playerId) {
+        buckets.remove(playerId);
+    }
+
+    /**
+     * 移除所有玩家的令牌桶
+     */
+    public void clear() {
+        buckets.clear();
+    }
+
+    /**
+     * 玩家的令牌桶，以自身作為鎖
+     */
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Bucket(double tokens, long lastRefillNanos) {
+            this.tokens = tokens;
+            this.lastRefillNanos = lastRefillNanos;
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import org.bukkit.Material;
+
+/**
+ * 渲染協調器 - 比對想要顯示的線段與客戶端上已顯示的線段
+ *
+ * 每次渲染只產生必要的操作:
+ * 1. 內容不變的線段: 不發送任何封包
+ * 2. 不再需要的線段: 優先改用來顯示新線段(只更新 metadata)
+ * 3. 剩餘的新線段: 生成新實體
+ * 4. 剩餘的舊線段: 移除實體
+ *
+ * 每次協調可以限制生成與更新的數量，未完成的部分在下一次以相同的線段緩衝區呼叫時繼續；
+ * 不再需要的舊實體會保留到所有新線段都顯示後才重用完畢或移除
+ *
+ * 已顯示的線段以與 {@link LineBuffer} 相同的陣列結構保存，並以開放定址的雜湊表
+ * 依線段內容(起點、終點、材質、粗細)查找，比對時直接讀取緩衝區的陣列，
+ * 內容不變的線段不會建立任何物件
+ *
+ * @param <H> 實體控制代碼類型(由後端決定)
+ */
+public class RenderReconciler<H> {
+
+    /**
+     * 協調結果要套用到客戶端的實體操作
+     *
+     * @param <H> 實體控制代碼類型
+     */
+    public interface Operations<H> {
+        /**
+         * 生成一個顯示指定線段的新實體
+         *
+         * @param lines 線段緩衝區
+         * @param index 線段索引
+         * @return 新實體的控制代碼
+         */
+        H spawn(LineBuffer lines, int index);
+
+        /**
+         * 將既有實體改為顯示另一條線段
+         *
+         * @param handle 實體控制代碼
+         * @param lines 線段緩衝區
+         * @param index 新線段的索引
+         */
+        void update(H handle, LineBuffer lines, int index);
+
+        /**
+         * 移除實體
+         *
+         * @param handle 實體控制代碼
+         */
+        void destroy(H handle);
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // 每條線段的座標數量
+    private static final int STRIDE = 6;
+
+    // 已顯示的線段，槽位 [0, size) 連續排列，移除時以最後一個槽位補上
+    private float[] coords = new float[INITIAL_CAPACITY * STRIDE];
+    private Material[] materials = new Material[INITIAL_CAPACITY];
+    private float[] thicknesses = new float[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private Object[] handles = new Object[INITIAL_CAPACITY];
+    private int[] marks = new int[INITIAL_CAPACITY];
+    private int size;
+
+    // 雜湊表(線性探測)：槽位 + 1，0 表示空位；容量維持在槽位容量的兩倍
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+
+    // 每次協調遞增，標記本次仍需要的已顯示線段
+    private int generation;
+
+    // 不再需要、等待重用或移除的實體(跨越未完成的協調保留)
+    private final ArrayDeque<H> reusable = new ArrayDeque<>();
+
+    // 上一次協調的統計
+    private int lastKept;
+    private int lastSpawned;
+    private int lastUpdated;
+    private int lastDestroyed;
+
+    /**
+     * 協調緩衝區中的線段與已顯示的線段，最多執行指定數量的生成與更新
+     *
+     * 線段依 order 的順序處理，因此排在前面的線段會先出現在客戶端；
+     * 內容相同的線段只顯示一次
+     *
+     * @param desired 想要顯示的線段
+     * @param order 線段的處理順序，至少包含 desired.size() 個索引
+     * @param operations 實體操作
+     * @param budget 最多可執行的生成與更新數量(移除不計)
+     * @return 是否已完成(所有線段都已顯示，舊實體都已移除)
+     */
+    public boolean reconcile(LineBuffer desired, int[] order, Operations<H> operations, int budget) {
+        lastKept = 0;
+        lastSpawned = 0;
+        lastUpdated = 0;
+        lastDestroyed = 0;
+
+        int count = desired.size();
+        int current = ++generation;
+
+        // 1. 標記仍需要的已顯示線段，其餘的實體收集起來供新線段重用
+        for (int index = 0; index < count; index++) {
+            int slot = find(desired, index, hash(desired, index));
+            if (slot >= 0) {
+                marks[slot] = current;
+            }
+        }
+        // 由後往前移除，補上的最後一個槽位已經檢查過
+        for (int slot = size - 1; slot >= 0; slot--) {
+            if (marks[slot] != current) {
+                reusable.add(handleAt(slot));
+                remove(slot);
+            }
+        }
+
+        // 2. 顯示新線段：優先重用，不足時生成
+        for (int i = 0; i < count; i++) {
+            int index = order[i];
+            int hash = hash(desired, index);
+            if (find(desired, index, hash) >= 0) {
+                lastKept++;
+                continue;
+            }
+
+            if (lastSpawned + lastUpdated >= budget) {
+                return false;
+            }
+
+            H handle = reusable.poll();
+            if (handle != null) {
+                operations.update(handle, desired, index);
+                lastUpdated++;
+            } else {
+                handle = operations.spawn(desired, index);
+                lastSpawned++;
+            }
+            insert(desired, index, hash, handle);
+        }
+
+        // 3. 移除剩餘的舊實體
+        for (H handle : reusable) {
+            operations.destroy(handle);
+            lastDestroyed++;
+        }
+        reusable.clear();
+        return true;
+    }
+
+    /**
+     * 移除所有已顯示的實體
+     *
+     * @param operations 實體操作
+     */
+    public void clear(Operations<H> operations) {
+        for (int slot = 0; slot < size; slot++) {
+            operations.destroy(handleAt(slot));
+        }
+        for (H handle : reusable) {
+            operations.destroy(handle);
+        }
+        Arrays.fill(handles, 0, size, null);
+        Arrays.fill(materials, 0, size, null);
+        Arrays.fill(table, 0);
+        size = 0;
+        reusable.clear();
+    }
+
+    /**
+     * 獲取客戶端上的實體數量(包含等待重用或移除的實體)
+     *
+     * @return 實體數量
+     */
+    public int size() {
+        return size + reusable.size();
+    }
+
+    /**
+     * 獲取已顯示的線段數量(不含等待重用或移除的實體)
+     *
+     * @return 線段數量
+     */
+    public int getDisplayedCount() {
+        return size;
+    }
+
+    /**
+     * 獲取已顯示線段的實體，配合 {@link #getDisplayedCount()} 依索引走訪
+     *
+     * @param index 索引(0 到 getDisplayedCount() - 1)
+     * @return 實體控制代碼
+     */
+    public H getDisplayedHandle(int index) {
+        return handleAt(index);
+    }
+
+    /**
+     * 將已顯示的線段加入緩衝區
+     *
+     * @param index 索引(0 到 getDisplayedCount() - 1)
+     * @param target 目標緩衝區
+     */
+    public void copyDisplayedLine(int index, LineBuffer target) {
+        int offset = index * STRIDE;
+        target.add(coords[offset], coords[offset + 1], coords[offset + 2],
+                coords[offset + 3], coords[offset + 4], coords[offset + 5],
+                materials[index], thicknesses[index]);
+    }
+
+    public int getLastKept() {
+        return lastKept;
+    }
+
+    public int getLastSpawned() {
+        return lastSpawned;
+    }
+
+    public int getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public int getLastDestroyed() {
+        return lastDestroyed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private H handleAt(int slot) {
+        return (H) handles[slot];
+    }
+
+    /**
+     * 計算線段內容的雜湊值
+     */
+    private static int hash(LineBuffer lines, int index) {
+        int result = 17;
+        result = 31 * result + Float.floatToIntBits(lines.getStartX(index));
+        result = 31 * result + Float.floatToIntBits(lines.getStartY(index));
+        result = 31 * result + Float.floatToIntBits(lines.getStartZ(index));
+        result = 31 * result + Float.floatToIntBits(lines.getEndX(index));
+        result = 31 * result + Float.floatToIntBits(lines.getEndY(index));
+        result = 31 * result + Float.floatToIntBits(lines.getEndZ(index));
+        result = 31 * result + lines.getMaterial(index).ordinal();
+        result = 31 * result + Float.floatToIntBits(lines.getThickness(index));
+        return result;
+    }
+
+    /**
+     * 雜湊值在表中的起始位置(打散相鄰座標的雜湊值)
+     */
+    private int home(int hash) {
+        int mixed = hash * 0x9E3779B9;
+        return (mixed ^ (mixed >>> 16)) & (table.length - 1);
+    }
+
+    /**
+     * 查找顯示相同內容的槽位
+     *
+     * @return 槽位，不存在時返回 -1
+     */
+    private int find(LineBuffer lines, int index, int hash) {
+        int mask = table.length - 1;
+        for (int position = home(hash); ; position = (position + 1) & mask) {
+            int entry = table[position];
+            if (entry == 0) {
+                return -1;
+            }
+            int slot = entry - 1;
+            if (hashes[slot] == hash && matches(slot, lines, index)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean matches(int slot, LineBuffer lines, int index) {
+        int offset = slot * STRIDE;
+        return Float.compare(coords[offset], lines.getStartX(index)) == 0
+                && Float.compare(coords[offset + 1], lines.getStartY(index)) == 0
+                && Float.compare(coords[offset + 2], lines.getStartZ(index)) == 0
+                && Float.compare(coords[offset + 3], lines.getEndX(index)) == 0
+                && Float.compare(coords[offset + 4], lines.getEndY(index)) == 0
+                && Float.compare(coords[offset + 5], lines.getEndZ(index)) == 0
+                && Float.compare(thicknesses[slot], lines.getThickness(index)) == 0
+                && materials[slot] == lines.getMaterial(index);
+    }
+
+    /**
+     * 新增一條已顯示的線段
+     */
+    private void insert(LineBuffer lines, int index, int hash, H handle) {
+        if (size == hashes.length) {
+            grow();
+        }
+
+        int slot = size++;
+        int offset = slot * STRIDE;
+        coords[offset] = lines.getStartX(index);
+        coords[offset + 1] = lines.getStartY(index);
+        coords[offset + 2] = lines.getStartZ(index);
+        coords[offset + 3] = lines.getEndX(index);
+        coords[offset + 4] = lines.getEndY(index);
+        coords[offset + 5] = lines.getEndZ(index);
+        materials[slot] = lines.getMaterial(index);
+        thicknesses[slot] = lines.getThickness(index);
+        hashes[slot] = hash;
+        handles[slot] = handle;
+        marks[slot] = generation;
+        link(slot);
+    }
+
+    /**
+     * 移除槽位，並把最後一個槽位移到空出的位置
+     */
+    private void remove(int slot) {
+        unlink(slot);
+
+        int last = --size;
+        if (slot != last) {
+            table[positionOf(last)] = slot + 1;
+            System.arraycopy(coords, last * STRIDE, coords, slot * STRIDE, STRIDE);
+            materials[slot] = materials[last];
+            thicknesses[slot] = thicknesses[last];
+            hashes[slot] = hashes[last];
+            handles[slot] = handles[last];
+            marks[slot] = marks[last];
+        }
+        materials[last] = null;
+        handles[last] = null;
+    }
+
+    private void link(int slot) {
+        int mask = table.length - 1;
+        int position = home(hashes[slot]);
+        while (table[position] != 0) {
+            position = (position + 1) & mask;
+        }
+        table[position] = slot + 1;
+    }
+
+    /**
+     * 從雜湊表移除槽位，之後的項目往前移，維持線性探測的查找路徑
+     */
+    private void unlink(int slot) {
+        int mask = table.length - 1;
+        int hole = positionOf(slot);
+        int next = (hole + 1) & mask;
+        while (table[next] != 0) {
+            int home = home(hashes[table[next] - 1]);
+            // 項目的起始位置不在 (hole, next] 之間時，可以移到空位
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[hole] = 0;
+    }
+
+    private int positionOf(int slot) {
+        int mask = table.length - 1;
+        int position = home(hashes[slot]);
+        while (table[position] != slot + 1) {
+            position = (position + 1) & mask;
+        }
+        return position;
+    }
+
+    private void grow() {
+        int capacity = hashes.length * 2;
+        coords = Arrays.copyOf(coords, capacity * STRIDE);
+        materials = Arrays.copyOf(materials, capacity);
+        thicknesses = Arrays.copyOf(thicknesses, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        marks = Arrays.copyOf(marks, capacity);
+
+        table = new int[capacity * 2];
+        for (int slot = 0; slot < size; slot++) {
+            link(slot);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package dev.twme.worldeditdisplay.display;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bukkit.entity.Player;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.util.PlatformScheduler;
+
+/**
+ * 渲染排程器 - 限制全伺服器每 tick 的實體生成與更新數量
+ *
+ * 每個 tick:
+ * 1. 更新 {@link RenderQualityMonitor} 的渲染品質
+ * 2. 處理 {@link RenderManager} 中等待合併的渲染請求
+ * 3. 把 performance.render_budget_per_tick 平均分給有未完成工作的玩家
+ * 4. 在每個玩家自己的序列執行器上發送至多分配數量的線段
+ *
+ * 排程在全域執行緒(Paper 為主執行緒、Folia 為全域區域執行緒)執行，
+ * 只分配預算；玩家位置在擁有玩家的執行緒上擷取，實際的渲染在玩家的序列執行器上進行
+ *
+ * 無法整除的餘數每個 tick 輪流分給不同的玩家；
+ * 用完預算的玩家保留未完成的線段，在之後的 tick 繼續
+ *
+ * 使用 Bundle(performance.double_buffered)時同樣不超過分配的數量，超出的部分在之後的 tick 以新的 Bundle 發送
+ *
+ * 不經過分配就發送的工作(玩家移動後重新錨定實體)累積為透支，
+ * 之後的 tick 先償還透支再分配，全伺服器的平均速率仍受預算限制
+ */
+public class RenderScheduler {
+
+    private final WorldEditDisplay plugin;
+    private final RenderManager renderManager;
+
+    // 玩家 UUID -> 有未完成工作的玩家
+    private final Map<UUID, ScheduledPlayer> scheduled = new ConcurrentHashMap<>();
+
+    // 每個 tick 的起始位置，讓餘數輪流分配
+    private int rotation;
+
+    // 未經分配就發送的數量(在玩家的序列執行器上累加，在全域執行緒償還)
+    private final AtomicLong overdraft = new AtomicLong();
+
+    private PlatformScheduler.Task task;
+
+    public RenderScheduler(WorldEditDisplay plugin, RenderManager renderManager) {
+        this.plugin = plugin;
+        this.renderManager = renderManager;
+    }
+
+    /**
+     * 開始每 tick 執行排程
+     */
+    public void start() {
+        if (task == null) {
+            task = plugin.getPlatformScheduler().runGlobalTimer(this::tick, 1L);
+        }
+    }
+
+    /**
+     * 停止排程並丟棄所有未完成的工作
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        scheduled.clear();
+        overdraft.set(0);
+    }
+
+    /**
+     * 記錄超出分配的生成與更新數量，由之後的 tick 從預算中扣除
+     *
+     * @param operations 超出的數量
+     */
+    void addOverdraft(int operations) {
+        overdraft.addAndGet(operations);
+    }
+
+    /**
+     * 獲取尚未償還的透支數量
+     *
+     * @return 生成與更新數量
+     */
+    public long getOverdraft() {
+        return overdraft.get();
+    }
+
+    /**
+     * 將玩家加入排程，直到已提交的線段全部發送完畢
+     *
+     * @param player 玩家
+     */
+    public void schedule(Player player) {
+        scheduled.computeIfAbsent(player.getUniqueId(), k -> new ScheduledPlayer(player));
+    }
+
+    /**
+     * 取消玩家的排程
+     *
+     * @param playerId 玩家 UUID
+     */
+    public void cancel(UUID playerId) {
+        scheduled.remove(playerId);
+    }
+
+    /**
+     * 取消所有玩家的排程
+     */
+    public void cancelAll() {
+        scheduled.clear();
+    }
+
+    /**
+     * 獲取有未完成工作的玩家數量
+     *
+     * @return 玩家數量
+     */
+    public int getScheduledCount() {
+        return scheduled.size();
+    }
+
+    /**
+     * 每 tick 在全域執行緒執行
+     */
+    private void tick() {
+        renderManager.getQualityMonitor().tick();
+        renderManager.flushPendingRenders();
+
+        // 每個 tick 先以預算償還透支(沒有玩家等待時也會償還)，償還完之前不分配新的工作
+        int budget = plugin.getRenderSettings().getRenderBudgetPerTick();
+        if (budget > 0) {
+            long repaid = Math.min(overdraft.get(), budget);
+            if (repaid > 0) {
+                overdraft.addAndGet(-repaid);
+                budget -= (int) repaid;
+            }
+            if (budget <= 0) {
+                return;
+            }
+        } else {
+            overdraft.set(0);
+        }
+
+        if (scheduled.isEmpty()) {
+            return;
+        }
+
+        // 上一次分配的工作還沒執行完的玩家這個 tick 不再分配
+        List<ScheduledPlayer> ready = new ArrayList<>(scheduled.size());
+        for (ScheduledPlayer entry : scheduled.values()) {
+            if (!entry.inFlight) {
+                ready.add(entry);
+            }
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+
+        int count = ready.size();
+        int share = budget <= 0 ? Integer.MAX_VALUE : budget / count;
+        int remainder = budget <= 0 ? 0 : budget % count;
+        int start = Math.floorMod(rotation++, count);
+
+        for (int i = 0; i < count; i++) {
+            ScheduledPlayer entry = ready.get((start + i) % count);
+            int allowance = share + (i < remainder ? 1 : 0);
+
+            // 預算少於玩家數量時，沒分到的玩家等之後輪到
+            if (allowance <= 0) {
+                continue;
+            }
+            dispatch(entry, allowance);
+        }
+    }
+
+    /**
+     * 在玩家的序列執行器上發送至多指定數量的線段
+     */
+    private void dispatch(ScheduledPlayer entry, int allowance) {
+        UUID playerId = entry.player.getUniqueId();
+        entry.inFlight = true;
+
+        // 錨點在擁有玩家的執行緒上擷取(Folia 上切換到玩家所在的區域)，發送在序列執行器上進行
+        plugin.getPlatformScheduler().executeForPlayer(entry.player, () -> {
+            renderManager.captureRenderAnchor(entry.player);
+            plugin.getCUIMessageProcessor().execute(playerId, () -> {
+                try {
+                    // 同一個玩家的提交與發送在同一個序列執行器上，完成後移除不會漏掉新的提交
+                    if (!renderManager.flushRender(entry.player, allowance)) {
+                        scheduled.remove(playerId, entry);
+                    }
+                } finally {
+                    entry.inFlight = false;
+                }
+            });
+        }, () -> {
+            scheduled.remove(playerId, entry);
+            entry.inFlight = false;
+        });
+    }
+
+    /**
+     * 排程中的玩家
+     */
+    private static final class ScheduledPlayer {
+        private final Player player;
+        private volatile boolean inFlight;
+
+        private ScheduledPlayer(Player player) {
+            this.player = player;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package dev.twme.worldeditdisplay.display;
+
+import org.bukkit.entity.Player;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.config.PlayerRenderSettings;
+import dev.twme.worldeditdisplay.display.renderer.RegionRenderer;
+import dev.twme.worldeditdisplay.region.Region;
+
+/**
+ * 渲染器工廠 - 為指定玩家建立某種選區類型的渲染器
+ *
+ * 通常直接使用渲染器的建構子參照，例如 {@code CuboidRenderer::new}
+ *
+ * @param <T> 選區類型
+ */
+@FunctionalInterface
+public interface RendererFactory<T extends Region> {
+
+    /**
+     * 建立渲染器
+     *
+     * @param plugin 插件實例
+     * @param player 目標玩家
+     * @param settings 玩家渲染設定
+     * @return 新的渲染器
+     */
+    RegionRenderer<T> create(WorldEditDisplay plugin, Player player, PlayerRenderSettings settings);
+}
@@ -5,6 +5,7 @@ import org.bukkit.entity.Player;
 
 import dev.twme.worldeditdisplay.WorldEditDisplay;
 import dev.twme.worldeditdisplay.config.PlayerRenderSettings;
+import dev.twme.worldeditdisplay.display.LineBuffer;
 import dev.twme.worldeditdisplay.region.BoundingBox;
 import dev.twme.worldeditdisplay.region.CuboidRegion;
 import dev.twme.worldeditdisplay.region.Vector3;
@@ -38,10 +39,7 @@ public class CuboidRenderer extends RegionRenderer<CuboidRegion> {
     }
     
     @Override
-    public void render(CuboidRegion region) {
-        // 先清除舊的渲染實體
-        clear();
-        
+    protected void renderRegion(CuboidRegion region) {
         // 判斷是否為多重選區
         boolean isMultiSelection = isMultiSelection(region);
         
@@ -97,8 +95,10 @@ public class CuboidRenderer extends RegionRenderer<CuboidRegion> {
             }
             
             // 渲染網格
-            if (renderGrid) {
+            if (renderGrid && quality.isGridEnabled()) {
+                lines.setPass(LineBuffer.PASS_DETAIL);
                 renderGrid(minX, minY, minZ, maxX, maxY, maxZ, region, gridMaterial);
+                lines.setPass(LineBuffer.PASS_OUTLINE);
             }
         } else {
             // 只有一個點
@@ -152,6 +152,11 @@ public class CuboidRenderer extends RegionRenderer<CuboidRegion> {
             }
         }
         
+        // 伺服器負載高時加大間距
+        spacingX = quality.applyGridSpacing(spacingX);
+        spacingY = quality.applyGridSpacing(spacingY);
+        spacingZ = quality.applyGridSpacing(spacingZ);
+        
         // 如果選區太小，不渲染網格
         if (sizeX < MIN_SPACING && sizeY < MIN_SPACING && sizeZ < MIN_SPACING) {
             return;
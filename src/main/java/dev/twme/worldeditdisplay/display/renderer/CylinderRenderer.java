@@ -5,6 +5,7 @@ import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
 import dev.twme.worldeditdisplay.config.PlayerRenderSettings;
+import dev.twme.worldeditdisplay.display.LineBuffer;
 import dev.twme.worldeditdisplay.region.CylinderRegion;
 import dev.twme.worldeditdisplay.region.Vector3;
 
@@ -25,14 +26,16 @@ import dev.twme.worldeditdisplay.region.Vector3;
  */
 public class CylinderRenderer extends RegionRenderer<CylinderRegion> {
     
+    // 圓周點的暫存陣列，只在分段數超過目前容量時才重新配置
+    private float[] circleXs = new float[0];
+    private float[] circleZs = new float[0];
+    
     public CylinderRenderer(WorldEditDisplay plugin, Player player, PlayerRenderSettings settings) {
         super(plugin, player, settings);
     }
     
     @Override
-    public void render(CylinderRegion region) {
-        clear();
-        
+    protected void renderRegion(CylinderRegion region) {
         // 判斷是否為多重選區
         boolean isMultiSelection = isMultiSelection(region);
         
@@ -102,28 +105,41 @@ public class CylinderRenderer extends RegionRenderer<CylinderRegion> {
         int gridStep = calculateGridStep(height);
         
         // 1. 渲染每個 Y 層的圓環(使用方塊中心,根據網格密度)
+        // 頂部與底部的圓環屬於輪廓，中間的圓環屬於細節
         for (int y = minY; y <= maxY + 1; y += gridStep) {
             // 跳過中心層，稍後單獨渲染
             if (y == center.getY() || y == center.getY() + 1) {
                 continue;
             }
+            boolean outline = y == minY || y == maxY + 1;
+            if (!outline && !quality.isGridEnabled()) {
+                continue;
+            }
+            lines.setPass(outline ? LineBuffer.PASS_OUTLINE : LineBuffer.PASS_DETAIL);
             renderCircle(centerXCircle, y, centerZCircle, radiusX, radiusZ, circleMaterial, settings.getCylinderCircleThickness());
         }
+        lines.setPass(LineBuffer.PASS_OUTLINE);
         // 確保頂部圓環一定會被渲染
         if ((maxY + 1 - minY) % gridStep != 0 && maxY + 1 != center.getY() && maxY + 1 != center.getY() + 1) {
             renderCircle(centerXCircle, maxY + 1, centerZCircle, radiusX, radiusZ, circleMaterial, settings.getCylinderCircleThickness());
         }
         
-        // 1.1 獨立渲染中心圓環（Y 軸方向的中心線）
-        if (center.getY() >= minY && center.getY() <= maxY + 1) {
-            renderCircle(centerXCircle, center.getY(), centerZCircle, radiusX, radiusZ, centerLineMaterial, settings.getCylinderCenterLineThickness());
-        }
-        if (center.getY() + 1 >= minY && center.getY() + 1 <= maxY + 1 && center.getY() + 1 != center.getY()) {
-            renderCircle(centerXCircle, center.getY() + 1, centerZCircle, radiusX, radiusZ, centerLineMaterial, settings.getCylinderCenterLineThickness());
+        // 伺服器負載高時不渲染中心圓環與網格線
+        if (quality.isGridEnabled()) {
+            lines.setPass(LineBuffer.PASS_DETAIL);
+            
+            // 1.1 獨立渲染中心圓環（Y 軸方向的中心線）
+            if (center.getY() >= minY && center.getY() <= maxY + 1) {
+                renderCircle(centerXCircle, center.getY(), centerZCircle, radiusX, radiusZ, centerLineMaterial, settings.getCylinderCenterLineThickness());
+            }
+            if (center.getY() + 1 >= minY && center.getY() + 1 <= maxY + 1 && center.getY() + 1 != center.getY()) {
+                renderCircle(centerXCircle, center.getY() + 1, centerZCircle, radiusX, radiusZ, centerLineMaterial, settings.getCylinderCenterLineThickness());
+            }
+            
+            // 2. 渲染網格線(使用方塊中心座標)
+            renderGrid(centerXGrid, centerZGrid, radiusX, radiusZ, minY, maxY + 1, gridMaterial, centerLineMaterial);
         }
-        
-        // 2. 渲染網格線(使用方塊中心座標)
-        renderGrid(centerXGrid, centerZGrid, radiusX, radiusZ, minY, maxY + 1, gridMaterial, centerLineMaterial);
+        lines.setPass(LineBuffer.PASS_OUTLINE);
         
         // 3. 渲染包覆整個方塊的中心標記
         // 傳入方塊的幾何中心座標（角落 + 0.5）並使用 size = 1.03
@@ -255,7 +271,8 @@ public class CylinderRenderer extends RegionRenderer<CylinderRegion> {
             step = Math.min(step, settings.getCylinderMaxGridSpacing());
         }
         
-        return step;
+        // 伺服器負載高時加大間隔
+        return quality.applyGridStep(step);
     }
     
     /**
@@ -284,7 +301,10 @@ public class CylinderRenderer extends RegionRenderer<CylinderRegion> {
         
         // 取兩者較大值，但限制在設定範圍內
         int segments = Math.max(segmentsByLength, segmentsByRadius);
-        return Math.max(settings.getCylinderMinCircleSegments(), Math.min(segments, settings.getCylinderMaxCircleSegments()));
+        segments = Math.max(settings.getCylinderMinCircleSegments(), Math.min(segments, settings.getCylinderMaxCircleSegments()));
+        
+        // 伺服器負載高時減少分段數
+        return quality.applySegments(segments);
     }
     
     /**
@@ -304,7 +324,8 @@ public class CylinderRenderer extends RegionRenderer<CylinderRegion> {
             step = Math.min(step, settings.getCylinderMaxGridSpacing());
         }
         
-        return step;
+        // 伺服器負載高時加大間隔
+        return quality.applyGridStep(step);
     }
     
     /**
@@ -324,7 +345,8 @@ public class CylinderRenderer extends RegionRenderer<CylinderRegion> {
             step = Math.min(step, settings.getCylinderMaxGridSpacing());
         }
         
-        return step;
+        // 伺服器負載高時加大間隔
+        return quality.applyGridStep(step);
     }
     
     /**
@@ -345,24 +367,26 @@ public class CylinderRenderer extends RegionRenderer<CylinderRegion> {
         // 動態計算分段數
         int segments = calculateCircleSegments(radiusX, radiusZ);
         
-        org.joml.Vector3f[] points = new org.joml.Vector3f[segments];
+        if (circleXs.length < segments) {
+            circleXs = new float[segments];
+            circleZs = new float[segments];
+        }
+        float[] xs = circleXs;
+        float[] zs = circleZs;
         
         // 計算圓周上的點
         double twoPi = Math.PI * 2;
         for (int i = 0; i < segments; i++) {
             double angle = i * twoPi / segments;
-            double x = centerX + radiusX * Math.cos(angle);
-            double z = centerZ + radiusZ * Math.sin(angle);
-            
-            points[i] = new org.joml.Vector3f((float) x, (float) y, (float) z);
+            xs[i] = (float) (centerX + radiusX * Math.cos(angle));
+            zs[i] = (float) (centerZ + radiusZ * Math.sin(angle));
         }
         
         // 連接相鄰的點形成圓環
+        float fy = (float) y;
         for (int i = 0; i < segments; i++) {
-            org.joml.Vector3f start = points[i];
-            org.joml.Vector3f end = points[(i + 1) % segments];
-            
-            renderLine(start, end, material, thickness);
+            int next = (i + 1) % segments;
+            renderLine(xs[i], fy, zs[i], xs[next], fy, zs[next], material, thickness);
         }
     }
     
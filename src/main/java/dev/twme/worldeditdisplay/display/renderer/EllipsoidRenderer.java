@@ -5,6 +5,7 @@ import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
 import dev.twme.worldeditdisplay.config.PlayerRenderSettings;
+import dev.twme.worldeditdisplay.display.LineBuffer;
 import dev.twme.worldeditdisplay.region.EllipsoidRegion;
 import dev.twme.worldeditdisplay.region.Vector3;
 
@@ -36,9 +37,7 @@ public class EllipsoidRenderer extends RegionRenderer<EllipsoidRegion> {
     }
     
     @Override
-    public void render(EllipsoidRegion region) {
-        clear();
-        
+    protected void renderRegion(EllipsoidRegion region) {
         // 判斷是否為多重選區
         boolean isMultiSelection = isMultiSelection(region);
         
@@ -75,10 +74,12 @@ public class EllipsoidRenderer extends RegionRenderer<EllipsoidRegion> {
         int yStep = calculateGridStep(radii.getY());
         int zStep = calculateGridStep(radii.getZ());
         
-        // 3. 渲染三個平面的網格
+        // 3. 渲染三個平面的網格(赤道屬於輪廓，其他經緯線屬於細節)
+        lines.setPass(LineBuffer.PASS_DETAIL);
         renderXZPlane(centerPos, radii, yStep, lineMaterial, centerLineMaterial);  // XZ 平面使用 Y 軸步長
         renderYZPlane(centerPos, radii, xStep, lineMaterial, centerLineMaterial);  // YZ 平面使用 X 軸步長
         renderXYPlane(centerPos, radii, zStep, lineMaterial, centerLineMaterial);  // XY 平面使用 Z 軸步長
+        lines.setPass(LineBuffer.PASS_OUTLINE);
     }
     
     /**
@@ -99,7 +100,8 @@ public class EllipsoidRenderer extends RegionRenderer<EllipsoidRegion> {
             step = Math.min(step, settings.getEllipsoidMaxGridSpacing());
         }
         
-        return step;
+        // 伺服器負載高時加大間隔
+        return quality.applyGridStep(step);
     }
     
     /**
@@ -130,7 +132,10 @@ public class EllipsoidRenderer extends RegionRenderer<EllipsoidRegion> {
         
         // 取兩者較大值，但限制在設定範圍內
         int segments = Math.max(segmentsByLength, segmentsByRadius);
-        return Math.max(settings.getEllipsoidMinSegments(), Math.min(segments, settings.getEllipsoidMaxSegments()));
+        segments = Math.max(settings.getEllipsoidMinSegments(), Math.min(segments, settings.getEllipsoidMaxSegments()));
+        
+        // 伺服器負載高時減少分段數
+        return quality.applySegments(segments);
     }
     
     /**
@@ -151,21 +156,27 @@ public class EllipsoidRenderer extends RegionRenderer<EllipsoidRegion> {
         
         // 當 Y 半徑過小時,只繪製主軸環
         if (ry < 0.5) {
+            lines.setPass(LineBuffer.PASS_OUTLINE);
             drawEllipseXZ(center, rx, ry, rz, 0, centerLineMaterial, settings.getEllipsoidCenterLineThickness());
+            lines.setPass(LineBuffer.PASS_DETAIL);
             return;
         }
         
         int yRad = (int) Math.floor(ry);
         
-        // 繪製多層水平橢圓（跳過主軸環）
-        for (int yOffset = -yRad; yOffset < yRad; yOffset += step) {
-            if (yOffset == 0) continue; // 主軸環單獨繪製
+        // 繪製多層水平橢圓（跳過主軸環），伺服器負載高時只保留主軸環
+        if (quality.isGridEnabled()) {
+            for (int yOffset = -yRad; yOffset < yRad; yOffset += step) {
+                if (yOffset == 0) continue; // 主軸環單獨繪製
             
-            drawEllipseXZ(center, rx, ry, rz, yOffset, lineMaterial, settings.getEllipsoidLineThickness());
+                drawEllipseXZ(center, rx, ry, rz, yOffset, lineMaterial, settings.getEllipsoidLineThickness());
+            }
         }
         
         // 獨立繪製主軸環 (y = 0, 赤道線) - 使用中心線材質
+        lines.setPass(LineBuffer.PASS_OUTLINE);
         drawEllipseXZ(center, rx, ry, rz, 0, centerLineMaterial, settings.getEllipsoidCenterLineThickness());
+        lines.setPass(LineBuffer.PASS_DETAIL);
     }
     
     /**
@@ -200,18 +211,11 @@ public class EllipsoidRenderer extends RegionRenderer<EllipsoidRegion> {
             float x2 = (float) (rx * Math.cos(theta2) * scaleFactor);
             float z2 = (float) (rz * Math.sin(theta2) * scaleFactor);
             
-            org.joml.Vector3f p1 = new org.joml.Vector3f(
-                center.x + x1,
-                center.y + yOffset,
-                center.z + z1
+            renderLine(
+                center.x + x1, center.y + yOffset, center.z + z1,
+                center.x + x2, center.y + yOffset, center.z + z2,
+                material, thickness
             );
-            org.joml.Vector3f p2 = new org.joml.Vector3f(
-                center.x + x2,
-                center.y + yOffset,
-                center.z + z2
-            );
-            
-            renderLine(p1, p2, material, thickness);
         }
     }
     
@@ -239,11 +243,13 @@ public class EllipsoidRenderer extends RegionRenderer<EllipsoidRegion> {
         
         int xRad = (int) Math.floor(rx);
         
-        // 繪製多層側視橢圓（跳過主軸環）
-        for (int xOffset = -xRad; xOffset < xRad; xOffset += step) {
-            if (xOffset == 0) continue; // 主軸環單獨繪製
+        // 繪製多層側視橢圓（跳過主軸環），伺服器負載高時只保留主軸環
+        if (quality.isGridEnabled()) {
+            for (int xOffset = -xRad; xOffset < xRad; xOffset += step) {
+                if (xOffset == 0) continue; // 主軸環單獨繪製
             
-            drawEllipseYZ(center, rx, ry, rz, xOffset, lineMaterial, settings.getEllipsoidLineThickness());
+                drawEllipseYZ(center, rx, ry, rz, xOffset, lineMaterial, settings.getEllipsoidLineThickness());
+            }
         }
         
         // 獨立繪製主軸環 (x = 0) - 使用中心線材質
@@ -281,18 +287,11 @@ public class EllipsoidRenderer extends RegionRenderer<EllipsoidRegion> {
             float y2 = (float) (ry * Math.cos(theta2) * scaleFactor);
             float z2 = (float) (rz * Math.sin(theta2) * scaleFactor);
             
-            org.joml.Vector3f p1 = new org.joml.Vector3f(
-                center.x + xOffset,
-                center.y + y1,
-                center.z + z1
+            renderLine(
+                center.x + xOffset, center.y + y1, center.z + z1,
+                center.x + xOffset, center.y + y2, center.z + z2,
+                material, thickness
             );
-            org.joml.Vector3f p2 = new org.joml.Vector3f(
-                center.x + xOffset,
-                center.y + y2,
-                center.z + z2
-            );
-            
-            renderLine(p1, p2, material, thickness);
         }
     }
     
@@ -320,11 +319,13 @@ public class EllipsoidRenderer extends RegionRenderer<EllipsoidRegion> {
         
         int zRad = (int) Math.floor(rz);
         
-        // 繪製多層正視橢圓（跳過主軸環）
-        for (int zOffset = -zRad; zOffset < zRad; zOffset += step) {
-            if (zOffset == 0) continue; // 主軸環單獨繪製
+        // 繪製多層正視橢圓（跳過主軸環），伺服器負載高時只保留主軸環
+        if (quality.isGridEnabled()) {
+            for (int zOffset = -zRad; zOffset < zRad; zOffset += step) {
+                if (zOffset == 0) continue; // 主軸環單獨繪製
             
-            drawEllipseXY(center, rx, ry, rz, zOffset, lineMaterial, settings.getEllipsoidLineThickness());
+                drawEllipseXY(center, rx, ry, rz, zOffset, lineMaterial, settings.getEllipsoidLineThickness());
+            }
         }
         
         // 獨立繪製主軸環 (z = 0) - 使用中心線材質
@@ -362,18 +363,11 @@ public class EllipsoidRenderer extends RegionRenderer<EllipsoidRegion> {
             float x2 = (float) (rx * Math.cos(theta2) * scaleFactor);
             float y2 = (float) (ry * Math.sin(theta2) * scaleFactor);
             
-            org.joml.Vector3f p1 = new org.joml.Vector3f(
-                center.x + x1,
-                center.y + y1,
-                center.z + zOffset
+            renderLine(
+                center.x + x1, center.y + y1, center.z + zOffset,
+                center.x + x2, center.y + y2, center.z + zOffset,
+                material, thickness
             );
-            org.joml.Vector3f p2 = new org.joml.Vector3f(
-                center.x + x2,
-                center.y + y2,
-                center.z + zOffset
-            );
-            
-            renderLine(p1, p2, material, thickness);
         }
     }
     
@@ -8,6 +8,7 @@ import org.joml.Vector3f;
 
 import dev.twme.worldeditdisplay.WorldEditDisplay;
 import dev.twme.worldeditdisplay.config.PlayerRenderSettings;
+import dev.twme.worldeditdisplay.display.LineBuffer;
 import dev.twme.worldeditdisplay.region.PolygonRegion;
 import dev.twme.worldeditdisplay.region.Vector2;
 
@@ -34,9 +35,7 @@ public class PolygonRenderer extends RegionRenderer<PolygonRegion> {
     }
     
     @Override
-    public void render(PolygonRegion region) {
-        clear();
-        
+    protected void renderRegion(PolygonRegion region) {
         // 判斷是否為多重選區
         boolean isMultiSelection = isMultiSelection(region);
         
@@ -82,9 +81,13 @@ public class PolygonRenderer extends RegionRenderer<PolygonRegion> {
         Material vertexMaterial = getMaterialWithOverride(region, 2, settings.getPolygonVertexMaterial(), isMultiSelection);
         
         // 1. 渲染多邊形邊框(根據網格密度)
+        // 頂部與底部屬於輪廓，中間的層屬於細節
         for (int y = minY; y <= maxY + 1; y += gridStep) {
+            boolean outline = y == minY || y == maxY + 1;
+            lines.setPass(outline ? LineBuffer.PASS_OUTLINE : LineBuffer.PASS_DETAIL);
             renderPolygonEdges(validPoints, y, edgeMaterial, settings.getPolygonEdgeThickness());
         }
+        lines.setPass(LineBuffer.PASS_OUTLINE);
         // 確保頂部邊框一定會被渲染
         if ((maxY + 1 - minY) % gridStep != 0) {
             renderPolygonEdges(validPoints, maxY + 1, edgeMaterial, settings.getPolygonEdgeThickness());
@@ -106,6 +109,11 @@ public class PolygonRenderer extends RegionRenderer<PolygonRegion> {
      * @return 網格步長 (每隔多少層繪製一個邊框)
      */
     private int calculateGridStep(int height) {
+        // 不渲染網格時只保留頂部與底部的邊框
+        if (!quality.isGridEnabled()) {
+            return height + 1;
+        }
+        
         int step = height / settings.getPolygonHeightGridDivision();
         step = Math.max(1, step); // 最小間隔為 1
         
@@ -114,7 +122,8 @@ public class PolygonRenderer extends RegionRenderer<PolygonRegion> {
             step = Math.min(step, settings.getPolygonMaxGridSpacing());
         }
         
-        return step;
+        // 伺服器負載高時加大間隔
+        return quality.applyGridStep(step);
     }
     
     /**
@@ -32,10 +32,7 @@ public class PolyhedronRenderer extends RegionRenderer<PolyhedronRegion> {
     }
     
     @Override
-    public void render(PolyhedronRegion region) {
-        // 先清除舊的渲染實體
-        clear();
-        
+    protected void renderRegion(PolyhedronRegion region) {
         // 判斷是否為多重選區
         boolean isMultiSelection = isMultiSelection(region);
         
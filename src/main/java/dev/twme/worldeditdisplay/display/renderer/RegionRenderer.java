@@ -3,34 +3,27 @@ package dev.twme.worldeditdisplay.display.renderer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.logging.Level;
 
 import dev.twme.worldeditdisplay.WorldEditDisplay;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
-
-import com.github.retrooper.packetevents.protocol.entity.type.EntityType;
-import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
-import com.github.retrooper.packetevents.util.Quaternion4f;
-import com.github.retrooper.packetevents.util.Vector3f;
 
 import dev.twme.worldeditdisplay.config.PlayerRenderSettings;
+import dev.twme.worldeditdisplay.display.EntityDestroyBatch;
+import dev.twme.worldeditdisplay.display.LineBuffer;
+import dev.twme.worldeditdisplay.display.LineEmitter;
+import dev.twme.worldeditdisplay.display.PacketBundle;
+import dev.twme.worldeditdisplay.display.RenderQuality;
 import dev.twme.worldeditdisplay.region.Region;
-import io.github.retrooper.packetevents.util.SpigotConversionUtil;
-import me.tofaa.entitylib.meta.display.AbstractDisplayMeta;
-import me.tofaa.entitylib.meta.display.ItemDisplayMeta;
-import me.tofaa.entitylib.wrapper.WrapperEntity;
+import dev.twme.worldeditdisplay.region.RegionSnapshot;
 
 /**
  * 選區渲染器抽象基類
  * 
- * 提供通用的渲染功能:
- * - 實體池管理
- * - 玩家可見性控制
- * - 變換(平移、縮放、旋轉)
- * - 清理機制
+ * 渲染分為兩個階段:
+ * 1. 幾何階段: 子類別把選區描述成線段，寫入 {@link LineBuffer}(純計算，不產生封包)
+ * 2. 發射階段: {@link LineEmitter} 把線段轉換為客戶端實體，並只發送與上次的差異
  * 
  * @param <T> 對應的選區類型
  */
@@ -41,11 +34,18 @@ public abstract class RegionRenderer<T extends Region> {
     protected final UUID playerUUID;
     protected final PlayerRenderSettings settings;
     
-    // 顯示實體池
-    protected final List<WrapperEntity> entities;
-    
-    // 渲染配置
-    protected RenderConfig config;
+    // 本次渲染想要顯示的線段(幾何階段的輸出)
+    protected final LineBuffer lines;
+
+    // 將線段轉換為客戶端實體
+    protected final LineEmitter emitter;
+
+    // 本次幾何階段使用的渲染品質(每次渲染開始時讀取一次)
+    protected RenderQuality quality = RenderQuality.FULL;
+
+    // 最近一次提交的選區快照與品質(清除後重設)，用來略過內容相同的重複渲染
+    private RegionSnapshot submittedSnapshot;
+    private RenderQuality submittedQuality;
     
     /**
      * 建構子
@@ -59,149 +59,149 @@ public abstract class RegionRenderer<T extends Region> {
         this.player = player;
         this.playerUUID = player.getUniqueId();
         this.settings = settings;
-        this.entities = new ArrayList<>();
-        this.config = RenderConfig.getDefault();
+        this.lines = new LineBuffer();
+        this.emitter = plugin.getRenderSettings().getDisplayBackend().createEmitter(plugin, player);
     }
     
     /**
      * 渲染選區
-     * 
+     *
+     * 子類別只描述想要顯示的線段，實際的實體操作由 {@link LineEmitter}
+     * 比對上一次的結果後決定：不變的線段不發送封包，改變的線段只更新 metadata，
+     * 只有在線條數量增加或減少時才會生成或移除實體
+     *
      * @param region 要渲染的選區
      */
-    public abstract void render(T region);
-    
+    public void render(T region) {
+        EntityDestroyBatch batch = new EntityDestroyBatch();
+        render(region, batch, PacketBundle.disabled(player));
+        batch.flush();
+    }
+
     /**
-     * 獲取此渲染器支援的選區類型
-     * 
-     * @return 選區類別
+     * 渲染選區，移除封包加入指定的批次，生成與更新封包計入指定的封包組
+     *
+     * 呼叫者負責在所有渲染器完成後呼叫 {@link EntityDestroyBatch#flush()}，
+     * 並在發送移除封包後才結束封包組，讓新舊選區在客戶端同一幀內交換
+     *
+     * @param region 要渲染的選區
+     * @param batch 移除批次
+     * @param bundle 封包組
      */
-    public abstract Class<T> getRegionType();
-    
+    public void render(T region, EntityDestroyBatch batch, PacketBundle bundle) {
+        buildGeometry(region);
+        emitter.emit(lines, batch, bundle);
+    }
+
     /**
-     * 清除所有渲染實體
+     * 只執行幾何階段並提交給發射器，實體操作交由 {@link #flush(EntityDestroyBatch, PacketBundle, int)} 分批執行
+     *
+     * 尚未完成的上一次提交會被取代
+     *
+     * @param region 要渲染的選區
      */
-    public void clear() {
-        for (WrapperEntity entity : entities) {
-            try {
-                entity.remove();
-            } catch (Exception e) {
-                plugin.getLogger().log(Level.WARNING, "Failed to remove entity: " + entity.getEntityId(), e);
-            }
-        }
-        entities.clear();
+    public void submit(T region) {
+        buildGeometry(region);
+        emitter.submit(lines);
+        submittedSnapshot = region.snapshot();
+        submittedQuality = quality;
     }
-    
+
     /**
-     * 創建並註冊一個新的顯示實體
-     * 
-     * @param entityType 實體類型
-     * @param location 生成位置
-     * @return WrapperEntity 實例
+     * 檢查選區內容與渲染品質是否與最近一次提交相同
+     *
+     * WorldEdit 常會重送相同的選區(例如用魔杖再點一次同一個方塊)，此時不需要重新計算線段
+     *
+     * @param region 選區
+     * @return 與最近一次提交相同時返回 true
      */
-    protected WrapperEntity createEntity(EntityType entityType, Location location) {
-        WrapperEntity entity = new WrapperEntity(entityType);
-        
-        // 生成實體
-        entity.spawn(SpigotConversionUtil.fromBukkitLocation(location));
-        
-        // 加入實體池
-        entities.add(entity);
-        
-        return entity;
+    public boolean isUpToDate(T region) {
+        return submittedSnapshot != null
+                && submittedSnapshot.sameContent(region.snapshot())
+                && submittedQuality == plugin.getRenderManager().getQualityMonitor().getLevel();
     }
-    
+
     /**
-     * 設定顯示實體的基礎屬性
-     * 
-     * @param entity 顯示實體
+     * 繼續發送最近一次提交的線段
+     *
+     * @param batch 移除批次
+     * @param bundle 封包組
+     * @param budget 最多可執行的生成與更新數量
+     * @return 實際執行的生成與更新數量
      */
-    protected void setupDisplayMeta(WrapperEntity entity) {
-        if (!(entity.getEntityMeta() instanceof AbstractDisplayMeta)) {
-            return;
-        }
-        
-        AbstractDisplayMeta meta = (AbstractDisplayMeta) entity.getEntityMeta();
-        // 設定可見距離
-        meta.setViewRange(config.getViewRange());
-        
-        // 設定亮度(始終發光)
-        if (config.isAlwaysBright()) {
-            meta.setBrightnessOverride(config.getFullBrightness());
-        }
-        
-        // 設定陰影
-        meta.setShadowRadius(config.getShadowRadius());
-        meta.setShadowStrength(config.getShadowStrength());
-        
-        // 設定發光顏色
-        if (config.hasGlowColor()) {
-            meta.setGlowColorOverride(config.getGlowColor());
-        }
+    public int flush(EntityDestroyBatch batch, PacketBundle bundle, int budget) {
+        return emitter.flush(batch, bundle, budget);
     }
-    
+
     /**
-     * 設定實體的變換(縮放)
-     * 
-     * @param entity 顯示實體
-     * @param scale 縮放向量
+     * 將錨點離玩家太遠的已顯示實體傳送到玩家附近
+     *
+     * @param bundle 封包組
+     * @return 傳送的實體數量
      */
-    protected void setScale(WrapperEntity entity, Vector3f scale) {
-        if (entity.getEntityMeta() instanceof AbstractDisplayMeta) {
-            AbstractDisplayMeta meta = (AbstractDisplayMeta) entity.getEntityMeta();
-            meta.setScale(scale);
-        }
+    public int reanchor(PacketBundle bundle) {
+        return emitter.reanchor(bundle);
     }
-    
+
     /**
-     * 設定實體的變換(平移)
-     * 
-     * @param entity 顯示實體
-     * @param translation 平移向量
+     * 是否還有尚未發送到客戶端的線段
+     *
+     * @return 有未完成的工作時返回 true
      */
-    protected void setTranslation(WrapperEntity entity, Vector3f translation) {
-        if (entity.getEntityMeta() instanceof AbstractDisplayMeta) {
-            AbstractDisplayMeta meta = (AbstractDisplayMeta) entity.getEntityMeta();
-            meta.setTranslation(translation);
-        }
+    public boolean hasPendingWork() {
+        return emitter.hasPendingWork();
     }
-    
+
     /**
-     * 設定實體的變換(旋轉)
-     * 
-     * @param entity 顯示實體
-     * @param rotation 旋轉四元數
+     * 幾何階段：清空線段緩衝區並寫入選區的所有線段
+     *
+     * @param region 要渲染的選區
+     * @return 本次渲染的線段緩衝區
      */
-    protected void setRotation(WrapperEntity entity, Quaternion4f rotation) {
-        if (entity.getEntityMeta() instanceof AbstractDisplayMeta) {
-            AbstractDisplayMeta meta = (AbstractDisplayMeta) entity.getEntityMeta();
-            meta.setLeftRotation(rotation);
-        }
+    public LineBuffer buildGeometry(T region) {
+        lines.clear();
+        quality = plugin.getRenderManager().getQualityMonitor().getLevel();
+        renderRegion(region);
+        return lines;
     }
+
+    /**
+     * 繪製選區的所有線條，由子類別實作
+     *
+     * @param region 要渲染的選區
+     */
+    protected abstract void renderRegion(T region);
     
     /**
-     * 批量更新實體 metadata
-     * 用於避免多次發送封包
+     * 獲取此渲染器支援的選區類型
      * 
-     * @param entity 顯示實體
-     * @param updater 更新操作
+     * @return 選區類別
      */
-    protected void batchUpdate(WrapperEntity entity, Runnable updater) {
-        if (!(entity.getEntityMeta() instanceof AbstractDisplayMeta)) {
-            updater.run();
-            return;
-        }
-        
-        AbstractDisplayMeta meta = (AbstractDisplayMeta) entity.getEntityMeta();
-        
-        // 暫時關閉自動通知
-        meta.getMetadata().setNotifyAboutChanges(false);
-        
-        // 執行更新
-        updater.run();
-        
-        // 重新啟用並手動發送
-        meta.getMetadata().setNotifyAboutChanges(true);
-        entity.sendPacketToViewers(meta.createPacket());
+    public abstract Class<T> getRegionType();
+    
+    /**
+     * 清除所有渲染實體
+     *
+     * 所有實體會在一個 DestroyEntities 封包中移除
+     */
+    public void clear() {
+        EntityDestroyBatch batch = new EntityDestroyBatch();
+        clear(batch);
+        batch.flush();
+    }
+
+    /**
+     * 清除所有渲染實體，將實體 ID 加入指定的批次
+     *
+     * 呼叫者負責在收集完畢後呼叫 {@link EntityDestroyBatch#flush()}，
+     * 以便多個渲染器共用同一個移除封包
+     *
+     * @param batch 移除批次
+     */
+    public void clear(EntityDestroyBatch batch) {
+        emitter.clear(batch);
+        submittedSnapshot = null;
+        submittedQuality = null;
     }
     
     /**
@@ -250,8 +250,8 @@ public abstract class RegionRenderer<T extends Region> {
     /**
      * 渲染一條線段
      * 
-     * 使用 ItemDisplay 實體來渲染一條從起點到終點的線段。
-     * 此方法會自動計算線段的長度、方向和位置，並創建一個適當縮放和旋轉的實體。
+     * 將一條從起點到終點的線段寫入線段緩衝區，
+     * 實際的 ItemDisplay 實體會在發射階段生成、更新或重用。
      * 
      * @param start 起點座標 (JOML Vector3f)
      * @param end 終點座標 (JOML Vector3f)
@@ -259,65 +259,27 @@ public abstract class RegionRenderer<T extends Region> {
      * @param thickness 線條粗細
      */
     protected void renderLine(org.joml.Vector3f start, org.joml.Vector3f end, Material material, float thickness) {
-        // 1. 計算線條的長度和中點
-        float length = start.distance(end) + thickness;
-        org.joml.Vector3f midpoint = new org.joml.Vector3f(
-                (start.x + end.x) / 2,
-                (start.y + end.y) / 2,
-                (start.z + end.z) / 2
-        );
-
-        // 2. 在玩家腳下生成實體
-        // 注意：我們需要一個 "乾淨" 的 Location (yaw/pitch = 0)
-        Location spawnLoc = new Location(
-                player.getWorld(), 
-                player.getLocation().x(), 
-                player.getLocation().y(), 
-                player.getLocation().z()
-        );
-
-
-        WrapperEntity entity = createEntity(EntityTypes.ITEM_DISPLAY, spawnLoc);
-
-        // 3. 設置實體的元數據
-        ItemDisplayMeta meta = (ItemDisplayMeta) entity.getEntityMeta();
-
-        // 4. 計算從玩家位置(生成點)到線條中點(視覺目標點)的偏移量
-        org.joml.Vector3f playerPos = new org.joml.Vector3f(
-                (float) spawnLoc.getX(),
-                (float) spawnLoc.getY(),
-                (float) spawnLoc.getZ()
-        );
-
-        // 這是唯一需要的 Translation
-        org.joml.Vector3f translation = new org.joml.Vector3f(midpoint).sub(playerPos);
-
-        // 5. 計算方向向量用於旋轉
-        org.joml.Vector3f direction = new org.joml.Vector3f(end).sub(start).normalize();
-
-        // 6. 設置物品和顯示屬性
-        meta.setItem(SpigotConversionUtil.fromBukkitItemStack(new ItemStack(material)));
-        meta.setDisplayType(ItemDisplayMeta.DisplayType.NONE);
-
-        // 7. 設置縮放 (沿 Z 軸縮放)
-        meta.setScale(new Vector3f(thickness, thickness, length));
-
-        // 8. 計算旋轉四元數
-        // 因為我們沿 Z 軸縮放 (length)，所以我們的預設方向必須是 Z 軸
-        org.joml.Vector3f defaultDir = new org.joml.Vector3f(0, 0, 1);
-        org.joml.Quaternionf rotation = new org.joml.Quaternionf();
-        rotation.rotationTo(defaultDir, direction);
-
-        meta.setLeftRotation(new Quaternion4f(rotation.x, rotation.y, rotation.z, rotation.w));
+        lines.add(start.x, start.y, start.z, end.x, end.y, end.z, material, thickness);
+    }
 
-        // 9. 設置最終的平移
-        meta.setTranslation(new Vector3f(translation.x, translation.y, translation.z));
-        
-        // 10. 應用渲染配置
-        setupDisplayMeta(entity);
-    
-        // 11. 添加觀察者
-        entity.addViewer(playerUUID);
+    /**
+     * 渲染一條線段(以座標分量傳入，不需要建立向量物件)
+     * 
+     * 大量線段的迴圈(圓環、網格)應優先使用此方法
+     * 
+     * @param startX 起點 X
+     * @param startY 起點 Y
+     * @param startZ 起點 Z
+     * @param endX 終點 X
+     * @param endY 終點 Y
+     * @param endZ 終點 Z
+     * @param material 線條使用的材質
+     * @param thickness 線條粗細
+     */
+    protected void renderLine(float startX, float startY, float startZ,
+                              float endX, float endY, float endZ,
+                              Material material, float thickness) {
+        lines.add(startX, startY, startZ, endX, endY, endZ, material, thickness);
     }
     
     /**
@@ -357,35 +319,32 @@ public abstract class RegionRenderer<T extends Region> {
     protected void renderBoxFrame(double minX, double minY, double minZ, 
                                   double maxX, double maxY, double maxZ,
                                   Material material, float thickness) {
-        // 定義8個頂點
-        org.joml.Vector3f v000 = new org.joml.Vector3f((float) minX, (float) minY, (float) minZ);
-        org.joml.Vector3f v001 = new org.joml.Vector3f((float) minX, (float) minY, (float) maxZ);
-        org.joml.Vector3f v010 = new org.joml.Vector3f((float) minX, (float) maxY, (float) minZ);
-        org.joml.Vector3f v011 = new org.joml.Vector3f((float) minX, (float) maxY, (float) maxZ);
-        org.joml.Vector3f v100 = new org.joml.Vector3f((float) maxX, (float) minY, (float) minZ);
-        org.joml.Vector3f v101 = new org.joml.Vector3f((float) maxX, (float) minY, (float) maxZ);
-        org.joml.Vector3f v110 = new org.joml.Vector3f((float) maxX, (float) maxY, (float) minZ);
-        org.joml.Vector3f v111 = new org.joml.Vector3f((float) maxX, (float) maxY, (float) maxZ);
+        float x0 = (float) minX;
+        float y0 = (float) minY;
+        float z0 = (float) minZ;
+        float x1 = (float) maxX;
+        float y1 = (float) maxY;
+        float z1 = (float) maxZ;
         
         // 渲染12條邊
         
         // 底面4條邊 (Y = minY)
-        renderLine(v000, v001, material, thickness); // Z方向
-        renderLine(v000, v100, material, thickness); // X方向
-        renderLine(v001, v101, material, thickness); // X方向
-        renderLine(v100, v101, material, thickness); // Z方向
+        renderLine(x0, y0, z0, x0, y0, z1, material, thickness); // Z方向
+        renderLine(x0, y0, z0, x1, y0, z0, material, thickness); // X方向
+        renderLine(x0, y0, z1, x1, y0, z1, material, thickness); // X方向
+        renderLine(x1, y0, z0, x1, y0, z1, material, thickness); // Z方向
         
         // 頂面4條邊 (Y = maxY)
-        renderLine(v010, v011, material, thickness); // Z方向
-        renderLine(v010, v110, material, thickness); // X方向
-        renderLine(v011, v111, material, thickness); // X方向
-        renderLine(v110, v111, material, thickness); // Z方向
+        renderLine(x0, y1, z0, x0, y1, z1, material, thickness); // Z方向
+        renderLine(x0, y1, z0, x1, y1, z0, material, thickness); // X方向
+        renderLine(x0, y1, z1, x1, y1, z1, material, thickness); // X方向
+        renderLine(x1, y1, z0, x1, y1, z1, material, thickness); // Z方向
         
         // 4條垂直邊 (Y方向)
-        renderLine(v000, v010, material, thickness); // 左前
-        renderLine(v001, v011, material, thickness); // 左後
-        renderLine(v100, v110, material, thickness); // 右前
-        renderLine(v101, v111, material, thickness); // 右後
+        renderLine(x0, y0, z0, x0, y1, z0, material, thickness); // 左前
+        renderLine(x0, y0, z1, x0, y1, z1, material, thickness); // 左後
+        renderLine(x1, y0, z0, x1, y1, z0, material, thickness); // 右前
+        renderLine(x1, y0, z1, x1, y1, z1, material, thickness); // 右後
     }
     
     /**
@@ -413,7 +372,7 @@ public abstract class RegionRenderer<T extends Region> {
      * @param config 渲染配置
      */
     public void setConfig(RenderConfig config) {
-        this.config = config;
+        emitter.setConfig(config);
     }
     
     /**
@@ -422,7 +381,7 @@ public abstract class RegionRenderer<T extends Region> {
      * @return 實體數量
      */
     public int getEntityCount() {
-        return entities.size();
+        return emitter.size();
     }
     
     /**
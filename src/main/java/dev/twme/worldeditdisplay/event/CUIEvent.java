@@ -1,111 +1,84 @@
 package dev.twme.worldeditdisplay.event;
 
-import java.util.List;
-
 import dev.twme.worldeditdisplay.WorldEditDisplay;
 import dev.twme.worldeditdisplay.player.PlayerData;
 
 /**
- * Base event for CUI events, handles parameter validation and running the logic
+ * Base handler for CUI events, handles parameter validation and running the logic
+ *
+ * One stateless instance exists per {@link CUIEventType} and is shared by all
+ * players; everything a message carries is read from the {@link CUIEventArgs}
+ * passed to {@link #execute(CUIEventArgs)}.
  */
 public abstract class CUIEvent {
-    protected final PlayerData playerData;
-    protected final List<String> params;
-    protected final boolean multi;
-
-    public CUIEvent(CUIEventArgs args) {
-        this.playerData = args.getPlayerData();
-        this.params = args.getParams();
-        this.multi = args.isMulti();
-    }
 
-    public abstract String raise();
+    /**
+     * Apply the event to the player's selections
+     *
+     * @param playerData the player the message was sent to
+     * @param args the parsed message
+     * @return true if the selection changed and should be rendered
+     */
+    protected abstract boolean raise(PlayerData playerData, CUIEventArgs args);
 
     public abstract CUIEventType getEventType();
 
     public String getEventName() {
         return this.getEventType().getName();
     }
-    
+
     /**
-     * 在事件處理完成後觸發渲染更新
-     * 子類別可以覆寫此方法以跳過渲染更新
-     * 
-     * @return 是否需要更新渲染
+     * Whether the event is only valid for multi selections
      */
-    protected boolean shouldUpdateRender() {
-        return true;
+    protected boolean requiresMulti() {
+        return false;
     }
-    
+
     /**
-     * 執行事件並觸發渲染更新
-     * 
+     * 執行事件並請求渲染更新
+     *
+     * 事件只修改 PlayerData，實際渲染由 RenderManager 在 tick 結束時合併執行
+     *
+     * @param args 已解析的訊息
      * @return 事件處理結果
      */
-    public String execute() {
-        String result = raise();
-        
-        // 如果事件需要更新渲染,則觸發更新
-        if (shouldUpdateRender() && playerData != null && playerData.getPlayer() != null) {
+    public CUIEventResult execute(CUIEventArgs args) {
+        CUIEventResult result = validate(args);
+        if (result != CUIEventResult.HANDLED) {
+            return result;
+        }
+
+        PlayerData playerData = args.getPlayerData();
+
+        // 如果事件需要更新渲染,則標記玩家需要重新渲染
+        if (raise(playerData, args) && playerData.getPlayer() != null) {
             WorldEditDisplay plugin = WorldEditDisplay.getPlugin();
             if (plugin != null && plugin.getRenderManager() != null) {
-                plugin.getRenderManager().updateRender(playerData.getPlayer());
+                plugin.getRenderManager().requestRender(playerData.getPlayer());
             }
         }
-        
-        return result;
+
+        return CUIEventResult.HANDLED;
     }
 
     /**
      * Checks if the parameters match the required length.
-     * @return true if valid, false otherwise
+     * @return HANDLED if valid, otherwise the reason the message is rejected
      */
-    public boolean isValid() {
-        int max = this.getEventType().getMaxParameters();
-        int min = this.getEventType().getMinParameters();
-
-        if (max == min) {
-            if (this.params.size() != max) {
-                return false;
-            }
-        } else {
-            if (this.params.size() > max || this.params.size() < min) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
-    public void prepare() {
-        if (this.playerData == null || this.params == null) {
-            throw new IllegalStateException("PlayerData and parameters must both be set.");
+    public CUIEventResult validate(CUIEventArgs args) {
+        if (args.getPlayerData() == null) {
+            return CUIEventResult.FAILED;
         }
 
-        if (!this.isValid()) {
-            String message = String.format("Invalid number of parameters. %s event requires %s parameters but received %s",
-                    this.getEventName(), this.getRequiredParameterString(), this.params.size());
-            throw new IllegalArgumentException(message);
+        if (this.requiresMulti() && !args.isMulti()) {
+            return CUIEventResult.MULTI_ONLY;
         }
-    }
 
-    private String getRequiredParameterString() {
-        if (this.getEventType().getMaxParameters() == this.getEventType().getMinParameters()) {
-            return String.valueOf(this.getEventType().getMaxParameters());
+        int size = args.size();
+        if (size > this.getEventType().getMaxParameters() || size < this.getEventType().getMinParameters()) {
+            return CUIEventResult.INVALID_PARAMETER_COUNT;
         }
 
-        return String.format("between %d and %d", this.getEventType().getMinParameters(), this.getEventType().getMaxParameters());
-    }
-
-    public int getInt(int index) {
-        return (int) Float.parseFloat(this.params.get(index));
-    }
-
-    public double getDouble(int index) {
-        return Double.parseDouble(this.params.get(index));
-    }
-
-    public String getString(int index) {
-        return this.params.get(index);
+        return CUIEventResult.HANDLED;
     }
 }
@@ -1,44 +1,238 @@
 package dev.twme.worldeditdisplay.event;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import dev.twme.worldeditdisplay.player.PlayerData;
 
 /**
  * CUI communication event arguments
  * Called when a CUI event is sent from the server.
+ *
+ * One instance is reused for every message of a player. {@link #parse(byte[])}
+ * only records the offsets of the '|' separated fields in the raw plugin
+ * message; numbers are parsed straight from the bytes when read, and strings
+ * are only built for the few parameters that are strings.
+ *
+ * Fields are split like {@code String.split("\\|", -1)}: empty fields,
+ * including a trailing one ("key|" has one empty parameter), are kept.
+ *
+ * Not thread-safe: only used on the player's serial executor.
  */
 public final class CUIEventArgs {
+    private static final byte SEPARATOR = '|';
+    private static final byte MULTI_PREFIX = '+';
+
+    // Doubles with at most this many significant digits convert exactly from long / 10^n
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
     private final PlayerData playerData;
-    private final boolean multi;
-    private final String type;
-    private final List<String> params;
 
-    public CUIEventArgs(PlayerData playerData, boolean multi, String type, List<String> params) {
+    private byte[] data;
+    private boolean multi;
+    private CUIEventType type;
+    private int paramCount;
+
+    // Start (inclusive) and end (exclusive) offset of each parameter in data
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+
+    // Buffer returned by getInts(), reused for every message
+    private int[] ints = new int[16];
+
+    public CUIEventArgs(PlayerData playerData) {
         this.playerData = playerData;
-        this.multi = multi;
-        this.type = type;
+    }
 
-        if (params.size() == 1 && params.get(0).isEmpty()) {
-            params = List.of();
+    /**
+     * Parse a raw CUI message, replacing the previous one
+     *
+     * @param data the plugin message payload (UTF-8)
+     * @return the event type, or null if the key is unknown
+     */
+    public CUIEventType parse(byte[] data) {
+        this.data = data;
+        this.paramCount = 0;
+
+        int keyEnd = indexOf(data, SEPARATOR, 0);
+        this.multi = data.length > 0 && data[0] == MULTI_PREFIX;
+        this.type = CUIEventType.fromKey(data, multi ? 1 : 0, keyEnd);
+        if (type == null) {
+            return null;
         }
 
-        this.params = params;
+        int start = keyEnd + 1;
+        while (start <= data.length) {
+            int end = indexOf(data, SEPARATOR, start);
+            addParam(start, end);
+            start = end + 1;
+        }
+        return type;
     }
 
     public PlayerData getPlayerData() {
         return this.playerData;
     }
 
-    public List<String> getParams() {
-        return this.params;
-    }
-
-    public String getType() {
+    public CUIEventType getType() {
         return this.type;
     }
 
     public boolean isMulti() {
         return this.multi;
     }
+
+    /**
+     * @return the number of parameters after the key
+     */
+    public int size() {
+        return this.paramCount;
+    }
+
+    public int getInt(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int end = ends[index];
+
+        // Plain integers (the common case) never go through floating point
+        long value = parseDigits(start, end);
+        if (value != Long.MIN_VALUE && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        return (int) getDouble(index);
+    }
+
+    /**
+     * Read every parameter as an int into a buffer owned by this instance.
+     * Only the first {@link #size()} entries are valid, and the next call
+     * overwrites them.
+     *
+     * @return the reused buffer
+     */
+    public int[] getInts() {
+        if (ints.length < paramCount) {
+            ints = new int[starts.length];
+        }
+        for (int i = 0; i < paramCount; i++) {
+            ints[i] = getInt(i);
+        }
+        return ints;
+    }
+
+    public long getLong(int index) {
+        checkIndex(index);
+        long value = parseDigits(starts[index], ends[index]);
+        if (value != Long.MIN_VALUE) {
+            return value;
+        }
+        return Long.parseLong(getString(index));
+    }
+
+    public double getDouble(int index) {
+        checkIndex(index);
+        int start = starts[index];
+        int end = ends[index];
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (data[i] == '-' || data[i] == '+')) {
+            negative = data[i] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        boolean any = false;
+        for (; i < end; i++) {
+            byte b = data[i];
+            if (b >= '0' && b <= '9') {
+                any = true;
+                if (mantissa == 0 && b == '0' && !fraction) {
+                    continue; // leading zeros
+                }
+                if (++digits > MAX_FAST_DIGITS) {
+                    break;
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+
+        // Exponents, NaN, Infinity and long values fall back to the JDK parser
+        if (i != end || !any) {
+            return Double.parseDouble(getString(index));
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    public String getString(int index) {
+        checkIndex(index);
+        return new String(data, starts[index], ends[index] - starts[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse an optionally signed decimal integer
+     *
+     * @return the value, or Long.MIN_VALUE if the field is not a plain integer
+     */
+    private long parseDigits(int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (data[i] == '-' || data[i] == '+')) {
+            negative = data[i] == '-';
+            i++;
+        }
+        // At most 18 digits always fit in a long
+        if (i == end || end - i > 18) {
+            return Long.MIN_VALUE;
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            byte b = data[i];
+            if (b < '0' || b > '9') {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private void addParam(int start, int end) {
+        if (paramCount == starts.length) {
+            starts = Arrays.copyOf(starts, paramCount * 2);
+            ends = Arrays.copyOf(ends, paramCount * 2);
+        }
+        starts[paramCount] = start;
+        ends[paramCount] = end;
+        paramCount++;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= paramCount) {
+            throw new IndexOutOfBoundsException("Parameter " + index + " out of " + paramCount);
+        }
+    }
+
+    private static int indexOf(byte[] data, byte value, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return data.length;
+    }
 }
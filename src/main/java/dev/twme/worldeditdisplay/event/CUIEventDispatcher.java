@@ -1,37 +1,65 @@
 package dev.twme.worldeditdisplay.event;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
 import dev.twme.worldeditdisplay.player.PlayerData;
 
 /**
  * Dispatcher for CUI events
  */
 public class CUIEventDispatcher {
-    private final PlayerData playerData;
+    // Exception types of failing handlers that have already been logged, shared by all players
+    private static final Set<Class<?>> loggedFailures = ConcurrentHashMap.newKeySet();
+
+    // Reused for every message of this player
+    private final CUIEventArgs eventArgs;
 
     public CUIEventDispatcher(PlayerData playerData) {
-        this.playerData = playerData;
+        this.eventArgs = new CUIEventArgs(playerData);
     }
 
-    public void raiseEvent(CUIEventArgs eventArgs) {
+    /**
+     * Parse a raw CUI message and raise its event
+     *
+     * Valid messages are parsed and dispatched without allocating an event object
+     * or throwing; only a malformed number or a failing handler reaches the catch
+     * blocks. Applying the message to a selection still allocates the new
+     * copy-on-write snapshot, see {@link PlayerData}.
+     *
+     * @param data the plugin message payload (UTF-8)
+     * @return the outcome, for {@link CUIEventStats}
+     */
+    public CUIEventResult dispatch(byte[] data) {
+        final CUIEventType type = eventArgs.parse(data);
+        if (type == null) {
+            return CUIEventResult.UNKNOWN_TYPE;
+        }
+
         try {
-            final CUIEventType type = CUIEventType.named(eventArgs.getType());
-            if (type == null) {
-                return;
-            }
-
-            CUIEvent event = type.make(eventArgs);
-            event.prepare();
-
-            String response = event.execute();  // 使用 execute() 來自動觸發渲染更新
-            if (response != null) {
-                this.handleEventResponse(response);
-            }
-        } catch (Exception ex) {
-            // Exception occurred, but we'll just ignore it
+            return type.getHandler().execute(eventArgs);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return CUIEventResult.MALFORMED_PARAMETER;
+        } catch (RuntimeException e) {
+            logFailure(type, e);
+            return CUIEventResult.FAILED;
         }
     }
 
-    private void handleEventResponse(String response) {
-        // Not implemented yet
+    /**
+     * Log a failing handler the first time its exception type is seen;
+     * later failures of the same type are only counted in {@link CUIEventStats}
+     */
+    private static void logFailure(CUIEventType type, RuntimeException e) {
+        if (!loggedFailures.add(e.getClass())) {
+            return;
+        }
+        WorldEditDisplay plugin = WorldEditDisplay.getPlugin();
+        if (plugin != null) {
+            plugin.getLogger().log(Level.WARNING, "CUI " + type.getName() + " event failed with "
+                    + e.getClass().getName() + "; further failures of this type are only counted", e);
+        }
     }
 }
@@ -0,0 +1,17 @@
+package dev.twme.worldeditdisplay.event;
+
+/**
+ * Outcome of dispatching a single CUI message, counted by {@link CUIEventStats}
+ */
+public enum CUIEventResult {
+    HANDLED,
+    UNKNOWN_TYPE,
+    INVALID_PARAMETER_COUNT,
+    MULTI_ONLY,
+    MALFORMED_PARAMETER,
+    FAILED;
+
+    public boolean isRejected() {
+        return this != HANDLED;
+    }
+}
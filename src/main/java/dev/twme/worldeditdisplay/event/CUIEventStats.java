@@ -0,0 +1,43 @@
+package dev.twme.worldeditdisplay.event;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for dispatched CUI messages, one per {@link CUIEventResult}
+ *
+ * Rejected messages are counted here instead of being thrown and caught,
+ * so malformed traffic stays visible through /wedisplay status.
+ */
+public class CUIEventStats {
+    private static final CUIEventResult[] RESULTS = CUIEventResult.values();
+
+    private final LongAdder[] counters = new LongAdder[RESULTS.length];
+
+    public CUIEventStats() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    public void record(CUIEventResult result) {
+        counters[result.ordinal()].increment();
+    }
+
+    public long get(CUIEventResult result) {
+        return counters[result.ordinal()].sum();
+    }
+
+    public long getHandled() {
+        return get(CUIEventResult.HANDLED);
+    }
+
+    public long getRejected() {
+        long rejected = 0;
+        for (CUIEventResult result : RESULTS) {
+            if (result.isRejected()) {
+                rejected += get(result);
+            }
+        }
+        return rejected;
+    }
+}
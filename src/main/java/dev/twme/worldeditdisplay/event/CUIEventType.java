@@ -1,8 +1,9 @@
 package dev.twme.worldeditdisplay.event;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
 
 import dev.twme.worldeditdisplay.event.events.CUIEventBounds;
 import dev.twme.worldeditdisplay.event.events.CUIEventColour;
@@ -16,40 +17,47 @@ import dev.twme.worldeditdisplay.event.events.CUIEventSelection;
 import dev.twme.worldeditdisplay.event.events.CUIEventUpdate;
 
 /**
- * Event type enum for CUI events. Also stores class, arguments, and key for each value.
+ * Event type enum for CUI events. Also stores the handler, arguments, and key for each value.
  */
 public enum CUIEventType {
-    SELECTION(CUIEventSelection::new, "Selection", "s", 1, 2),
-    POINT(CUIEventPoint3D::new, "Point3D", "p", 5, 6),
-    POINT2D(CUIEventPoint2D::new, "Point2D", "p2", 4, 5),
-    ELLIPSOID(CUIEventEllipsoid::new, "Ellipsoid", "e", 4),
-    CYLINDER(CUIEventCylinder::new, "Cylinder", "cyl", 5),
-    MINMAX(CUIEventBounds::new, "Bounds", "mm", 2),
-    UPDATE(CUIEventUpdate::new, "Update", "u", 1),
-    POLYGON(CUIEventPolygon::new, "Polygon", "poly", 3, 99),
-    COLOUR(CUIEventColour::new, "Colour", "col", 4),
-    GRID(CUIEventGrid::new, "Grid", "grid", 1, 2);
+    SELECTION(new CUIEventSelection(), "Selection", "s", 1, 2),
+    POINT(new CUIEventPoint3D(), "Point3D", "p", 5, 6),
+    POINT2D(new CUIEventPoint2D(), "Point2D", "p2", 4, 5),
+    ELLIPSOID(new CUIEventEllipsoid(), "Ellipsoid", "e", 4),
+    CYLINDER(new CUIEventCylinder(), "Cylinder", "cyl", 5),
+    MINMAX(new CUIEventBounds(), "Bounds", "mm", 2),
+    UPDATE(new CUIEventUpdate(), "Update", "u", 1),
+    POLYGON(new CUIEventPolygon(), "Polygon", "poly", 3, 99),
+    COLOUR(new CUIEventColour(), "Colour", "col", 4),
+    GRID(new CUIEventGrid(), "Grid", "grid", 1, 2);
 
-    private final Function<CUIEventArgs, CUIEvent> maker;
+    private final CUIEvent handler;
     private final String key;
+    private final byte[] keyBytes;
     private final String name;
     private final int minParams;
     private final int maxParams;
 
-    CUIEventType(Function<CUIEventArgs, CUIEvent> maker, String name, String key, int minParams, int maxParams) {
-        this.maker = maker;
+    CUIEventType(CUIEvent handler, String name, String key, int minParams, int maxParams) {
+        this.handler = handler;
         this.name = name;
         this.key = key;
+        this.keyBytes = key.getBytes(StandardCharsets.US_ASCII);
         this.minParams = minParams;
         this.maxParams = maxParams;
     }
 
-    CUIEventType(Function<CUIEventArgs, CUIEvent> maker, String name, String key, int paramCount) {
-        this(maker, name, key, paramCount, paramCount);
+    CUIEventType(CUIEvent handler, String name, String key, int paramCount) {
+        this(handler, name, key, paramCount, paramCount);
     }
 
-    public CUIEvent make(final CUIEventArgs args) {
-        return this.maker.apply(args);
+    /**
+     * Get the shared, stateless handler of this event type
+     *
+     * @return the handler
+     */
+    public CUIEvent getHandler() {
+        return this.handler;
     }
 
     public String getKey() {
@@ -69,6 +77,7 @@ public enum CUIEventType {
     }
 
     private static final Map<String, CUIEventType> BY_NAME = new HashMap<>();
+    private static final CUIEventType[] VALUES = values();
 
     static {
         for (CUIEventType type : values()) {
@@ -85,4 +94,21 @@ public enum CUIEventType {
     public static CUIEventType named(final String key) {
         return BY_NAME.get(key);
     }
+
+    /**
+     * Get a CUI event type by the key bytes of a raw message, without building a string.
+     *
+     * @param data raw message
+     * @param start start offset of the key (inclusive)
+     * @param end end offset of the key (exclusive)
+     * @return the appropriate event type, or null if none found
+     */
+    public static CUIEventType fromKey(final byte[] data, final int start, final int end) {
+        for (CUIEventType type : VALUES) {
+            if (Arrays.equals(type.keyBytes, 0, type.keyBytes.length, data, start, end)) {
+                return type;
+            }
+        }
+        return null;
+    }
 }
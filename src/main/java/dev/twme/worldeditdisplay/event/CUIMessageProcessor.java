@@ -0,0 +1,139 @@
+package dev.twme.worldeditdisplay.event;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.player.PlayerData;
+import dev.twme.worldeditdisplay.util.SerialExecutor;
+
+/**
+ * CUI 訊息處理器 - 在每個玩家自己的序列執行器上處理 CUI 訊息與渲染
+ *
+ * 封包監聽器只負責攔截封包並把原始訊息放入佇列，解析、事件分派與渲染
+ * 都在虛擬執行緒上執行，不會阻塞 Netty 的網路執行緒
+ *
+ * 同一個玩家的任務依提交順序執行，因此所有會操作玩家渲染的動作
+ * (CUI 訊息、指令、離線清理)都應透過 {@link #execute(UUID, Runnable)} 提交
+ *
+ * 玩家離線時以 {@link #close(UUID, Runnable)} 關閉序列執行器：之後才提交的任務
+ * (晚到的 CUI 封包、排程器的發送等)會被丟棄，不會建立第二個同時執行的序列執行器，
+ * 也不會寫回清理任務已清除的狀態
+ *
+ * 只有玩家數據仍存在時才會建立序列執行器：清理任務移除玩家數據之後才提交的任務
+ * 會直接丟棄，不會為已離線的玩家留下一個不再被移除的序列執行器
+ */
+public class CUIMessageProcessor {
+
+    private final WorldEditDisplay plugin;
+    private final ExecutorService virtualThreads;
+
+    // 玩家 UUID -> 序列執行器
+    private final Map<UUID, SerialExecutor> lanes = new ConcurrentHashMap<>();
+
+    // 各種處理結果的訊息數量
+    private final CUIEventStats stats = new CUIEventStats();
+
+    public CUIMessageProcessor(WorldEditDisplay plugin) {
+        this.plugin = plugin;
+        this.virtualThreads = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("WorldEditDisplay-CUI-", 0).factory());
+    }
+
+    /**
+     * 將 CUI 訊息加入玩家的佇列
+     *
+     * @param playerData 玩家數據
+     * @param data 原始訊息內容(UTF-8)
+     */
+    public void submit(PlayerData playerData, byte[] data) {
+        execute(playerData.getPlayer().getUniqueId(), () -> process(playerData, data));
+    }
+
+    /**
+     * 在玩家的序列執行器上執行任務
+     *
+     * 玩家數據已被移除(玩家已離線並清理完畢)時任務會被丟棄
+     *
+     * @param playerId 玩家 UUID
+     * @param task 任務
+     */
+    public void execute(UUID playerId, Runnable task) {
+        SerialExecutor lane = lanes.computeIfAbsent(playerId,
+                k -> PlayerData.getPlayerData(k) != null ? new SerialExecutor(virtualThreads) : null);
+        if (lane != null) {
+            lane.execute(() -> runTask(playerId, task));
+        }
+    }
+
+    /**
+     * 在玩家已提交的任務之後執行最後一個任務，並關閉玩家的序列執行器
+     *
+     * 序列執行器在最後一個任務執行完後才移除，期間提交的任務會被丟棄，
+     * 之後(例如玩家重新登入)提交的任務才會使用新的序列執行器
+     *
+     * @param playerId 玩家 UUID
+     * @param task 最後的清理任務
+     */
+    public void close(UUID playerId, Runnable task) {
+        // 清理任務一定要執行，序列執行器會在它執行完後移除
+        SerialExecutor lane = lanes.computeIfAbsent(playerId, k -> new SerialExecutor(virtualThreads));
+        lane.close(() -> {
+            try {
+                runTask(playerId, task);
+            } finally {
+                lanes.remove(playerId, lane);
+            }
+        });
+    }
+
+    private void runTask(UUID playerId, Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to process CUI task for " + playerId, e);
+        }
+    }
+
+    /**
+     * 解析 CUI 訊息並分派事件
+     *
+     * 直接在原始位元組上解析，不建立中間字串
+     *
+     * @param playerData 玩家數據
+     * @param data 原始訊息內容
+     */
+    private void process(PlayerData playerData, byte[] data) {
+        stats.record(playerData.getDispatcher().dispatch(data));
+    }
+
+    /**
+     * 獲取 CUI 訊息的處理統計
+     *
+     * @return 處理統計
+     */
+    public CUIEventStats getStats() {
+        return stats;
+    }
+
+    /**
+     * 停止接受新任務，並等待已提交的任務完成
+     */
+    public void shutdown() {
+        virtualThreads.shutdown();
+        try {
+            if (!virtualThreads.awaitTermination(2, TimeUnit.SECONDS)) {
+                virtualThreads.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            virtualThreads.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        lanes.clear();
+    }
+}
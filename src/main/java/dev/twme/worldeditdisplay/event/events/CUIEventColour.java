@@ -6,6 +6,7 @@ import dev.twme.worldeditdisplay.common.ColorMatcher;
 import dev.twme.worldeditdisplay.event.CUIEvent;
 import dev.twme.worldeditdisplay.event.CUIEventArgs;
 import dev.twme.worldeditdisplay.event.CUIEventType;
+import dev.twme.worldeditdisplay.player.PlayerData;
 import dev.twme.worldeditdisplay.region.Region;
 
 /**
@@ -15,35 +16,27 @@ import dev.twme.worldeditdisplay.region.Region;
  * 以模擬 WorldEditCUI 的顏色渲染行為
  */
 public class CUIEventColour extends CUIEvent {
-    public CUIEventColour(CUIEventArgs args) {
-        super(args);
-    }
-
     @Override
     public CUIEventType getEventType() {
         return CUIEventType.COLOUR;
     }
 
     @Override
-    public void prepare() {
-        if (!this.multi) {
-            throw new IllegalStateException("COLOUR event is not valid for non-multi selections");
-        }
-
-        super.prepare();
+    protected boolean requiresMulti() {
+        // COLOUR event is not valid for non-multi selections
+        return true;
     }
 
     @Override
-    public String raise() {
-        Region selection = playerData.getSelection(true);
-        if (selection == null) {
-            return null;
+    protected boolean raise(PlayerData playerData, CUIEventArgs args) {
+        if (playerData.getSelection(true) == null) {
+            return true;
         }
         
-        String primaryColor = !params.isEmpty() ? getString(0) : null;
-        String secondaryColor = params.size() > 1 ? getString(1) : null;
-        String gridColor = params.size() > 2 ? getString(2) : null;
-        String backgroundColor = params.size() > 3 ? getString(3) : null;
+        String primaryColor = args.size() > 0 ? args.getString(0) : null;
+        String secondaryColor = args.size() > 1 ? args.getString(1) : null;
+        String gridColor = args.size() > 2 ? args.getString(2) : null;
+        String backgroundColor = args.size() > 3 ? args.getString(3) : null;
         
         // 初始化材質陣列
         Material[] colorMaterials = new Material[4];
@@ -83,10 +76,10 @@ public class CUIEventColour extends CUIEvent {
         // 將顏色設定套用到玩家資料（保留舊的行為）
         playerData.setSelectionColors(primaryColor, secondaryColor, gridColor, backgroundColor);
         
-        // 將材質覆寫套用到選區
-        selection.setColorMaterials(colorMaterials);
+        // 將材質覆寫套用到選區的副本並發佈，不修改已發佈的選區
+        playerData.modifySelection(true, Region::setColorMaterials, colorMaterials);
 
-        return null;
+        return true;
     }
     
     /**
@@ -3,41 +3,32 @@ package dev.twme.worldeditdisplay.event.events;
 import dev.twme.worldeditdisplay.event.CUIEvent;
 import dev.twme.worldeditdisplay.event.CUIEventArgs;
 import dev.twme.worldeditdisplay.event.CUIEventType;
+import dev.twme.worldeditdisplay.player.PlayerData;
 import dev.twme.worldeditdisplay.region.Region;
 
 /**
  * Called when cylinder event is received
  */
 public class CUIEventCylinder extends CUIEvent {
-    public CUIEventCylinder(CUIEventArgs args) {
-        super(args);
-    }
-
     @Override
     public CUIEventType getEventType() {
         return CUIEventType.CYLINDER;
     }
 
     @Override
-    public String raise() {
-        int x = this.getInt(0);
-        int y = this.getInt(1);
-        int z = this.getInt(2);
-        double radX = this.getDouble(3);
-        double radZ = this.getDouble(4);
-        
-        // Get the appropriate region (multi-selection or single selection)
-        Region region = playerData.getSelection(this.multi);
-        
-        if (region != null) {
-            try {
-                region.setCylinderCenter(x, y, z);
-                region.setCylinderRadius(radX, radZ);
-            } catch (UnsupportedOperationException e) {
-                // Region type does not support cylinder properties
-            }
+    protected boolean raise(PlayerData playerData, CUIEventArgs args) {
+        // Update a copy of the appropriate region (multi-selection or single selection)
+        try {
+            playerData.modifySelection(args.isMulti(), CUIEventCylinder::setCylinder, args);
+        } catch (UnsupportedOperationException e) {
+            // Region type does not support cylinder properties
         }
 
-        return null;
+        return true;
+    }
+
+    private static void setCylinder(Region region, CUIEventArgs args) {
+        region.setCylinderCenter(args.getInt(0), args.getInt(1), args.getInt(2));
+        region.setCylinderRadius(args.getDouble(3), args.getDouble(4));
     }
 }
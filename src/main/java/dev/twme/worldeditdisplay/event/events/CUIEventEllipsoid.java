@@ -3,48 +3,41 @@ package dev.twme.worldeditdisplay.event.events;
 import dev.twme.worldeditdisplay.event.CUIEvent;
 import dev.twme.worldeditdisplay.event.CUIEventArgs;
 import dev.twme.worldeditdisplay.event.CUIEventType;
+import dev.twme.worldeditdisplay.player.PlayerData;
 import dev.twme.worldeditdisplay.region.Region;
 
 /**
  * Called when ellipsoid event is received
  */
 public class CUIEventEllipsoid extends CUIEvent {
-    public CUIEventEllipsoid(CUIEventArgs args) {
-        super(args);
-    }
-
     @Override
     public CUIEventType getEventType() {
         return CUIEventType.ELLIPSOID;
     }
 
     @Override
-    public String raise() {
-        int id = this.getInt(0);
+    protected boolean raise(PlayerData playerData, CUIEventArgs args) {
+        int id = args.getInt(0);
         
-        // Get the appropriate region (multi-selection or single selection)
-        Region region = playerData.getSelection(this.multi);
-        
-        if (region != null) {
-            try {
-                if (id == 0) {
-                    int x = this.getInt(1);
-                    int y = this.getInt(2);
-                    int z = this.getInt(3);
-                    
-                    region.setEllipsoidCenter(x, y, z);
-                } else if (id == 1) {
-                    double x = this.getDouble(1);
-                    double y = this.getDouble(2);
-                    double z = this.getDouble(3);
-                    
-                    region.setEllipsoidRadii(x, y, z);
-                }
-            } catch (UnsupportedOperationException e) {
+        // Update a copy of the appropriate region (multi-selection or single selection)
+        try {
+            if (id == 0) {
+                playerData.modifySelection(args.isMulti(), CUIEventEllipsoid::setCenter, args);
+            } else if (id == 1) {
+                playerData.modifySelection(args.isMulti(), CUIEventEllipsoid::setRadii, args);
             }
-        } else {
+        } catch (UnsupportedOperationException e) {
+            // Region type does not support ellipsoid properties
         }
 
-        return null;
+        return true;
+    }
+
+    private static void setCenter(Region region, CUIEventArgs args) {
+        region.setEllipsoidCenter(args.getInt(1), args.getInt(2), args.getInt(3));
+    }
+
+    private static void setRadii(Region region, CUIEventArgs args) {
+        region.setEllipsoidRadii(args.getDouble(1), args.getDouble(2), args.getDouble(3));
     }
 }
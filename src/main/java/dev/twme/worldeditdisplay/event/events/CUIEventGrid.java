@@ -3,45 +3,37 @@ package dev.twme.worldeditdisplay.event.events;
 import dev.twme.worldeditdisplay.event.CUIEvent;
 import dev.twme.worldeditdisplay.event.CUIEventArgs;
 import dev.twme.worldeditdisplay.event.CUIEventType;
+import dev.twme.worldeditdisplay.player.PlayerData;
 import dev.twme.worldeditdisplay.region.Region;
 
 /**
  * Called when grid spacing event is received
  */
 public class CUIEventGrid extends CUIEvent {
-    public CUIEventGrid(CUIEventArgs args) {
-        super(args);
-    }
-
     @Override
     public CUIEventType getEventType() {
         return CUIEventType.GRID;
     }
 
     @Override
-    public void prepare() {
-        if (!this.multi) {
-            throw new IllegalStateException("GRID event is not valid for non-multi selections");
-        }
-
-        super.prepare();
+    protected boolean requiresMulti() {
+        // GRID event is not valid for non-multi selections
+        return true;
     }
 
     @Override
-    public String raise() {
-        double spacing = this.getDouble(0);
+    protected boolean raise(PlayerData playerData, CUIEventArgs args) {
         // 備註: 原本有 renderType 邏輯，但目前未被使用
         
-        // Get current multi-region (grid event only applies to multi-selections)
-        Region region = playerData.getCurrentMultiRegion();
-        
-        if (region != null) {
-            // 設定網格間距
-            region.setGridSpacing(spacing);
-            // TODO: 可在此處添加日誌記錄功能 (例如使用 Logger 替代 System.out.println)
-        }
+        // 設定目前多重選區副本的網格間距 (grid event only applies to multi-selections)
+        playerData.modifySelection(true, CUIEventGrid::setSpacing, args);
+        // TODO: 可在此處添加日誌記錄功能 (例如使用 Logger 替代 System.out.println)
         // NOTE: 若無多選區域，grid spacing 更新會被忽略
 
-        return null;
+        return true;
+    }
+
+    private static void setSpacing(Region region, CUIEventArgs args) {
+        region.setGridSpacing(args.getDouble(0));
     }
 }
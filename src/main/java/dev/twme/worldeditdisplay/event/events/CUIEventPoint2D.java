@@ -2,38 +2,31 @@ package dev.twme.worldeditdisplay.event.events;
 
 import dev.twme.worldeditdisplay.event.CUIEventArgs;
 import dev.twme.worldeditdisplay.event.CUIEventType;
+import dev.twme.worldeditdisplay.player.PlayerData;
 import dev.twme.worldeditdisplay.region.Region;
 
 /**
  * Called when poly point event is received
  */
 public class CUIEventPoint2D extends CUIEventPoint3D {
-    public CUIEventPoint2D(CUIEventArgs args) {
-        super(args);
-    }
-
     @Override
     public CUIEventType getEventType() {
         return CUIEventType.POINT2D;
     }
 
     @Override
-    public String raise() {
-        int id = this.getInt(0);
-        int x = this.getInt(1);
-        int z = this.getInt(2);
-        
-        // Get the appropriate region (multi-selection or single selection)
-        Region region = playerData.getSelection(this.multi);
-        
-        if (region != null) {
-            try {
-                region.setPolygonPoint(id, x, z);
-            } catch (UnsupportedOperationException e) {
-                // Region type does not support polygon points
-            }
+    protected boolean raise(PlayerData playerData, CUIEventArgs args) {
+        // Update a copy of the appropriate region (multi-selection or single selection)
+        try {
+            playerData.modifySelection(args.isMulti(), CUIEventPoint2D::setPoint, args);
+        } catch (UnsupportedOperationException e) {
+            // Region type does not support polygon points
         }
 
-        return null;
+        return true;
+    }
+
+    private static void setPoint(Region region, CUIEventArgs args) {
+        region.setPolygonPoint(args.getInt(0), args.getInt(1), args.getInt(2));
     }
 }
@@ -2,28 +2,27 @@ package dev.twme.worldeditdisplay.event.events;
 
 import java.util.UUID;
 
-import dev.twme.worldeditdisplay.WorldEditDisplay;
 import dev.twme.worldeditdisplay.event.CUIEvent;
 import dev.twme.worldeditdisplay.event.CUIEventArgs;
 import dev.twme.worldeditdisplay.event.CUIEventType;
+import dev.twme.worldeditdisplay.player.PlayerData;
 import dev.twme.worldeditdisplay.region.Region;
 
 /**
  * Called when selection event is received
  */
 public class CUIEventSelection extends CUIEvent {
-    public CUIEventSelection(CUIEventArgs args) {
-        super(args);
-    }
-
     @Override
     public CUIEventType getEventType() {
         return CUIEventType.SELECTION;
     }
 
     @Override
-    public String raise() {
-        String key = this.getString(0);
+    protected boolean raise(PlayerData playerData, CUIEventArgs args) {
+        String key = args.getString(0);
+        
+        // 只有在清除或取代選區時才觸發渲染，創建新選區時等待點的資料
+        boolean shouldTriggerRender = false;
         
         // Handle "clear" as a special case - it means clear/remove the selection
         Region region = null;
@@ -33,29 +32,28 @@ public class CUIEventSelection extends CUIEvent {
             region = playerData.createRegion(key);
             
             if (region == null) {
-                return null;
+                return false;
             }
         }
         
         // Handle multi-selection mode
-        if (this.multi) {
+        if (args.isMulti()) {
             UUID id = null;
             
             // If it's a clear event without UUID, clear all multi-selections only
-            if (region == null && this.params.size() < 2) {
+            if (region == null && args.size() < 2) {
                 playerData.clearRegions(true); // 只清除多重選區
                 
-                // 標記需要更新渲染（因為是清除操作）
-                this.shouldTriggerRender = true;
-                return null;
+                // 需要更新渲染（因為是清除操作）
+                return true;
             }
             
             // Get the UUID for this multi-selection
-            if (this.params.size() >= 2) {
+            if (args.size() >= 2) {
                 try {
-                    id = UUID.fromString(this.getString(1));
+                    id = UUID.fromString(args.getString(1));
                 } catch (IllegalArgumentException e) {
-                    return null;
+                    return false;
                 }
             }
             
@@ -68,7 +66,7 @@ public class CUIEventSelection extends CUIEvent {
                     playerData.setCurrentMultiRegionId(id);
                     
                     // 創建新選區時不觸發渲染（等待點的資料）
-                    this.shouldTriggerRender = false;
+                    shouldTriggerRender = false;
                 } else {
                     
                     // 如果清除的是當前多重選區，則重置當前多重選區 ID
@@ -77,40 +75,25 @@ public class CUIEventSelection extends CUIEvent {
                     }
                     
                     // 清除選區時需要觸發渲染
-                    this.shouldTriggerRender = true;
+                    shouldTriggerRender = true;
                 }
             }
         } else {
             // 非多重選區模式：只影響一般選區
-            // 在設定新選區之前，先清除舊選區的渲染
             Region oldRegion = playerData.getSelection();
-            if (oldRegion != null && region != null) {
-                // 如果有舊選區且要設定新選區，先清除舊選區的渲染
-                WorldEditDisplay plugin = WorldEditDisplay.getPlugin();
-                if (plugin != null && plugin.getRenderManager() != null) {
-                    plugin.getRenderManager().clearRender(playerData.getPlayer().getUniqueId());
-                }
-            }
             
             playerData.setSelection(region);
             if (region == null) {
                 
                 // 清除選區時需要觸發渲染
-                this.shouldTriggerRender = true;
+                shouldTriggerRender = true;
             } else {
-                // 創建新選區時不觸發渲染（等待點的資料）
-                this.shouldTriggerRender = false;
+                // 創建新選區時等待點的資料；取代舊選區時仍需要渲染，
+                // 舊選區的線段會在與點資料合併後的同一次渲染中移除
+                shouldTriggerRender = oldRegion != null;
             }
         }
         
-        return null;
-    }
-    
-    private boolean shouldTriggerRender = false;
-    
-    @Override
-    protected boolean shouldUpdateRender() {
-        // 只有在清除選區時才觸發渲染，創建新選區時等待點的資料
         return shouldTriggerRender;
     }
 }
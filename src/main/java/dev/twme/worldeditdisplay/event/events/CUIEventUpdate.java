@@ -3,24 +3,21 @@ package dev.twme.worldeditdisplay.event.events;
 import dev.twme.worldeditdisplay.event.CUIEvent;
 import dev.twme.worldeditdisplay.event.CUIEventArgs;
 import dev.twme.worldeditdisplay.event.CUIEventType;
+import dev.twme.worldeditdisplay.player.PlayerData;
 
 /**
  * Called when update event is received
  */
 public class CUIEventUpdate extends CUIEvent {
-    public CUIEventUpdate(CUIEventArgs args) {
-        super(args);
-    }
-
     @Override
     public CUIEventType getEventType() {
         return CUIEventType.UPDATE;
     }
 
     @Override
-    public String raise() {
+    protected boolean raise(PlayerData playerData, CUIEventArgs args) {
         // TODO: Implement update logic
 
-        return null;
+        return true;
     }
 }
@@ -1,9 +1,5 @@
 package dev.twme.worldeditdisplay.listener;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
-import java.util.List;
-
 import org.bukkit.entity.Player;
 
 import com.github.retrooper.packetevents.event.PacketListener;
@@ -11,8 +7,8 @@ import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerPluginMessage;
 
+import dev.twme.worldeditdisplay.WorldEditDisplay;
 import dev.twme.worldeditdisplay.common.Constants;
-import dev.twme.worldeditdisplay.event.CUIEventArgs;
 import dev.twme.worldeditdisplay.player.PlayerData;
 
 public class OutboundPacketListener implements PacketListener {
@@ -29,17 +25,18 @@ public class OutboundPacketListener implements PacketListener {
             return;
         }
 
-        byte[] data = packet.getData();
-        String message = new String(data, StandardCharsets.UTF_8);
         Player player = (Player) event.getPlayer();
 
-        // 檢查玩家是否有使用權限
-        if (!player.hasPermission("worldeditdisplay.use")) {
-            return; // 沒有權限，直接返回不處理
+        // Get player data without creating it; a packet sent after quit must not bring back an entry
+        PlayerData playerData = PlayerData.getPlayerData(player.getUniqueId());
+        if (playerData == null) {
+            return;
         }
 
-        // Get player data
-        PlayerData playerData = PlayerData.getPlayerData(player);
+        // 檢查玩家是否有使用權限(快取的結果，不在網路執行緒上呼叫權限插件)
+        if (!playerData.isUseAllowed()) {
+            return; // 沒有權限，直接返回不處理
+        }
         
         // 如果玩家已經有 CUI，直接傳出封包不處理
         if (playerData.isCuiEnabled()) {
@@ -48,14 +45,13 @@ public class OutboundPacketListener implements PacketListener {
 
         event.setCancelled(true); // 取消封包傳送
 
-        // Parse the CUI message
-        String[] split = message.split("\\|", -1); // 使用 -1 保留尾部空字串
-        boolean multi = split[0].startsWith("+");
-        String type = split[0].substring(multi ? 1 : 0);
-        List<String> params = split.length > 1 ? Arrays.asList(Arrays.copyOfRange(split, 1, split.length)) : List.of();
-        
-        // Create event args and dispatch
-        CUIEventArgs eventArgs = new CUIEventArgs(playerData, multi, type, params);
-        playerData.getDispatcher().raiseEvent(eventArgs);
+        WorldEditDisplay plugin = WorldEditDisplay.getPlugin();
+        byte[] data = packet.getData();
+
+        // 錄製中的玩家寫入追蹤檔(未錄製時只檢查一次)
+        plugin.getTraceRecorder().record(player.getUniqueId(), data);
+
+        // 解析、分派與渲染交給玩家的序列執行器，不在網路執行緒上執行
+        plugin.getCUIMessageProcessor().submit(playerData, data);
     }
 }
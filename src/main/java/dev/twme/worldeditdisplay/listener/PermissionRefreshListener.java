@@ -0,0 +1,36 @@
+package dev.twme.worldeditdisplay.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+
+/**
+ * Listener that keeps the cached worldeditdisplay.use permission up to date
+ * when a player's effective permissions may have changed
+ */
+public class PermissionRefreshListener implements Listener {
+
+    private final WorldEditDisplay plugin;
+
+    public PermissionRefreshListener(WorldEditDisplay plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        plugin.getPermissionCache().refresh(event.getPlayer());
+    }
+
+    /**
+     * Fired whenever the command tree is resent, which Bukkit does in
+     * recalculatePermissions and LuckPerms does after a user's data changes
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerCommandSend(PlayerCommandSendEvent event) {
+        plugin.getPermissionCache().refresh(event.getPlayer());
+    }
+}
@@ -5,7 +5,6 @@ import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPl
 import dev.twme.worldeditdisplay.WorldEditDisplay;
 import dev.twme.worldeditdisplay.common.Constants;
 import dev.twme.worldeditdisplay.player.PlayerData;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -26,16 +25,24 @@ public class PlayerJoinListener implements Listener {
         // 獲取並設置玩家語言
         plugin.getLanguageManager().getPlayerLanguage(player);
         
-        // 檢查玩家是否有自動啟用渲染的權限
+        // 建立玩家數據(重新登入時取代上一次連線尚未清除的數據)
         PlayerData playerData = PlayerData.getPlayerData(player);
+        
+        // 快取玩家的使用權限
+        plugin.getPermissionCache().refresh(player);
+        
+        // 檢查玩家是否有自動啟用渲染的權限
         if (player.hasPermission("worldeditdisplay.render.auto-enable")) {
             playerData.setRenderingEnabled(true);
         } else {
             playerData.setRenderingEnabled(false);
         }
         
+        // 第一次渲染前就有錨點可用
+        playerData.captureRenderAnchor();
+        
         // 延遲一秒，讓有 CUI 的玩家先註冊
-        Bukkit.getScheduler().scheduleSyncDelayedTask(plugin, () -> {
+        plugin.getPlatformScheduler().runForPlayer(player, () -> {
             // 檢查玩家是否仍在線
             if (!player.isOnline()) {
                 return;
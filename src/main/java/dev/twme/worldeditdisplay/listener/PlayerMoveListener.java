@@ -0,0 +1,68 @@
+package dev.twme.worldeditdisplay.listener;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.player.PlayerData;
+
+/**
+ * Listener that keeps selection entities anchored near a moving player
+ *
+ * Lines whose content does not change are never re-sent, so their entities stay
+ * at the position they were spawned at. Whenever a player enters another chunk
+ * the new position is captured (these events run on the thread that owns the
+ * player) and the far entities are moved closer on the player's render lane.
+ */
+public class PlayerMoveListener implements Listener {
+
+    private final WorldEditDisplay plugin;
+
+    public PlayerMoveListener(WorldEditDisplay plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        handleMove(event.getPlayer(), event.getFrom(), event.getTo());
+    }
+
+    /**
+     * Teleports have their own handler list and are not seen by onPlayerMove
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        handleMove(event.getPlayer(), event.getFrom(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        Player player = event.getPlayer();
+        handleMove(player, player.getLocation(), event.getRespawnLocation());
+    }
+
+    private void handleMove(Player player, Location from, Location to) {
+        if (to == null || isSameChunk(from, to)) {
+            return;
+        }
+
+        PlayerData playerData = PlayerData.getPlayerData(player.getUniqueId());
+        if (playerData == null) {
+            return;
+        }
+        playerData.captureRenderAnchor(to);
+        plugin.getRenderManager().requestReanchor(player);
+    }
+
+    private static boolean isSameChunk(Location from, Location to) {
+        return from.getWorld() == to.getWorld()
+                && from.getBlockX() >> 4 == to.getBlockX() >> 4
+                && from.getBlockZ() >> 4 == to.getBlockZ() >> 4;
+    }
+}
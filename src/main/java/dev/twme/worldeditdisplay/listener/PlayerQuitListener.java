@@ -1,5 +1,7 @@
 package dev.twme.worldeditdisplay.listener;
 
+import java.util.UUID;
+
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerQuitEvent;
@@ -21,17 +23,21 @@ public class PlayerQuitListener implements Listener {
     
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
-        // Clean up player renders first
-        if (plugin.getRenderManager() != null) {
-            plugin.getRenderManager().clearRender(event.getPlayer().getUniqueId());
-        }
+        UUID playerId = event.getPlayer().getUniqueId();
+        PlayerData playerData = PlayerData.getPlayerData(playerId);
         
         // Clean up player language record
         if (plugin.getLanguageManager() != null) {
-            plugin.getLanguageManager().removePlayerLanguage(event.getPlayer().getUniqueId());
+            plugin.getLanguageManager().removePlayerLanguage(playerId);
         }
         
-        // Clean up player data when player disconnects
-        PlayerData.removePlayerData(event.getPlayer().getUniqueId());
+        // Clean up renders and player data after the player's pending CUI tasks
+        plugin.getCUIMessageProcessor().close(playerId, () -> {
+            if (plugin.getRenderManager() != null) {
+                plugin.getRenderManager().clearRender(playerId);
+                plugin.getRenderManager().getRateLimiter().remove(playerId);
+            }
+            PlayerData.removePlayerData(playerId, playerData);
+        });
     }
 }
@@ -0,0 +1,86 @@
+package dev.twme.worldeditdisplay.player;
+
+import org.bukkit.entity.Player;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.util.PlatformScheduler;
+
+/**
+ * Caches the worldeditdisplay.use and worldeditdisplay.bypass.ratelimit
+ * permissions in each player's PlayerData.
+ *
+ * The outbound CUI listener runs on Netty threads for every plugin message;
+ * permission plugins such as LuckPerms resolve inherited nodes on each
+ * hasPermission call, so the listener only reads the cached flag instead.
+ *
+ * The cache is refreshed on the thread that owns the player:
+ * - on join and world change
+ * - when the server resends the command tree, which Bukkit and LuckPerms do
+ *   after a player's permissions are recalculated
+ * - every performance.permission_refresh_interval_ticks ticks
+ */
+public class PermissionCache {
+
+    public static final String USE_PERMISSION = "worldeditdisplay.use";
+    public static final String RATE_LIMIT_BYPASS_PERMISSION = "worldeditdisplay.bypass.ratelimit";
+
+    private final WorldEditDisplay plugin;
+    private PlatformScheduler.Task task;
+    private int ticksSinceRefresh;
+
+    public PermissionCache(WorldEditDisplay plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Start the periodic refresh
+     */
+    public void start() {
+        if (task == null) {
+            task = plugin.getPlatformScheduler().runGlobalTimer(this::tick, 1L);
+        }
+    }
+
+    /**
+     * Stop the periodic refresh
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    /**
+     * Re-evaluate the cached permissions of a player.
+     * Must be called on the thread that owns the player.
+     * Does nothing if the player has no PlayerData (e.g. a refresh that
+     * runs after the player left), so it never recreates a removed entry.
+     *
+     * @param player the player
+     */
+    public void refresh(Player player) {
+        PlayerData playerData = PlayerData.getPlayerData(player.getUniqueId());
+        if (playerData == null) {
+            return;
+        }
+        playerData.setUseAllowed(player.hasPermission(USE_PERMISSION));
+        playerData.setRateLimitBypass(player.hasPermission(RATE_LIMIT_BYPASS_PERMISSION));
+    }
+
+    /**
+     * Runs every tick on the global thread; the interval is read each tick
+     * so that a config reload takes effect without restarting the timer
+     */
+    private void tick() {
+        int interval = plugin.getRenderSettings().getPermissionRefreshIntervalTicks();
+        if (interval <= 0 || ++ticksSinceRefresh < interval) {
+            return;
+        }
+        ticksSinceRefresh = 0;
+
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            plugin.getPlatformScheduler().runForPlayer(player, () -> refresh(player), 0L);
+        }
+    }
+}
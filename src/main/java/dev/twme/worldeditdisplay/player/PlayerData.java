@@ -3,37 +3,56 @@ package dev.twme.worldeditdisplay.player;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
 import dev.twme.worldeditdisplay.event.CUIEventDispatcher;
 import dev.twme.worldeditdisplay.region.Region;
 import dev.twme.worldeditdisplay.region.RegionType;
 
-public class PlayerData {
+/**
+ * 玩家的 CUI 狀態與選區
+ *
+ * 執行緒規則:
+ * - 登錄表可從任何執行緒(Netty、主執行緒、區域執行緒、序列執行器)存取，讀取不需要鎖
+ * - 只有登入與指令等確定玩家在線的路徑會建立項目，其他路徑以 {@link #getPlayerData(UUID)} 讀取；
+ *   重新登入的玩家會取得新的項目，上一次連線的離線清理只移除自己的項目
+ * - 選區只由玩家的序列執行器修改，每次修改發佈一個新的不可變快照，
+ *   讀取者拿到的選區集合不會在使用期間被修改
+ * - 選區本身採用寫入時複製: 已發佈的 Region 不會再被修改，
+ *   CUI 事件透過 {@link #modifySelection} 修改副本後再發佈
+ * - 因此每次選區變更都會配置一份選區副本與一個快照(多重選區另加一份映射)，
+ *   這是讓其他執行緒讀到完整選區的代價；解析與分派本身不配置物件
+ * - 其他旗標以 volatile 欄位發佈
+ * - 渲染錨點只在擁有玩家的執行緒上擷取，序列執行器只讀取擷取好的副本
+ */
+public final class PlayerData {
 
-    private static final Map<UUID, PlayerData> playerDataMap = new HashMap<>();
+    private static final Map<UUID, PlayerData> playerDataMap = new ConcurrentHashMap<>();
     
     private final Player player;
     private final CUIEventDispatcher dispatcher;
-    private boolean isCuiEnabled = false;
-    private CUI_MODE mode;
-    private boolean renderingEnabled = false; // 預設關閉，需要權限才會在登入時開啟
+    private volatile boolean isCuiEnabled = false;
+    private volatile CUI_MODE mode;
+    private volatile boolean renderingEnabled = false; // 預設關閉，需要權限才會在登入時開啟
+    private volatile boolean useAllowed = false; // cached worldeditdisplay.use, see PermissionCache
+    private volatile boolean rateLimitBypass = false; // cached worldeditdisplay.bypass.ratelimit, see PermissionCache
+    private volatile Location renderAnchor; // position captured on the owning thread, see captureRenderAnchor
     
-    // Region data
-    private Region currentRegion;
-    private final Map<UUID, Region> multiRegions = new HashMap<>();
-    
-    // 追蹤當前正在操作的多重選區
-    private UUID currentMultiRegionId;
+    // Region data(不可變快照)
+    private final AtomicReference<Selections> selections = new AtomicReference<>(Selections.EMPTY);
     
     // Colour settings
-    private String primaryColor;
-    private String secondaryColor;
-    private String gridColor;
-    private String backgroundColor;
-    private boolean gridEnabled = true;
-    private boolean backgroundEnabled = true;
+    private volatile String primaryColor;
+    private volatile String secondaryColor;
+    private volatile String gridColor;
+    private volatile String backgroundColor;
+    private volatile boolean gridEnabled = true;
+    private volatile boolean backgroundEnabled = true;
 
     public PlayerData(Player player) {
         this.player = player;
@@ -42,9 +61,27 @@ public class PlayerData {
     
     /**
      * Get or create PlayerData for a player
+     * 
+     * Only call this where the player is known to be online (join, commands).
+     * An entry left over from a previous session of the same player, whose
+     * cleanup has not run yet, is replaced with a new one.
      */
     public static PlayerData getPlayerData(Player player) {
-        return playerDataMap.computeIfAbsent(player.getUniqueId(), k -> new PlayerData(player));
+        PlayerData data = playerDataMap.get(player.getUniqueId());
+        if (data != null && data.player == player) {
+            return data;
+        }
+        return playerDataMap.compute(player.getUniqueId(),
+                (k, existing) -> existing != null && existing.player == player ? existing : new PlayerData(player));
+    }
+    
+    /**
+     * Get existing PlayerData without creating it
+     * 
+     * @return PlayerData, or null if the player has none
+     */
+    public static PlayerData getPlayerData(UUID uuid) {
+        return playerDataMap.get(uuid);
     }
     
     /**
@@ -54,6 +91,18 @@ public class PlayerData {
         playerDataMap.remove(uuid);
     }
     
+    /**
+     * Remove PlayerData only if it is still the given instance, so that a
+     * delayed quit cleanup does not remove the data of a newer session
+     * 
+     * @param uuid the player's UUID
+     * @param data the instance captured when the player left
+     * @return true if the entry was removed
+     */
+    public static boolean removePlayerData(UUID uuid, PlayerData data) {
+        return data != null && playerDataMap.remove(uuid, data);
+    }
+    
     public Player getPlayer() {
         return player;
     }
@@ -62,12 +111,6 @@ public class PlayerData {
         return dispatcher;
     }
 
-
-
-
-
-
-
     public CUI_MODE getMode(){
         return mode;
     }
@@ -98,20 +141,78 @@ public class PlayerData {
         this.renderingEnabled = enabled;
     }
     
+    /**
+     * Check the cached worldeditdisplay.use permission
+     */
+    public boolean isUseAllowed() {
+        return useAllowed;
+    }
+    
+    /**
+     * Update the cached worldeditdisplay.use permission
+     */
+    public void setUseAllowed(boolean useAllowed) {
+        this.useAllowed = useAllowed;
+    }
+    
+    /**
+     * Check the cached worldeditdisplay.bypass.ratelimit permission
+     */
+    public boolean isRateLimitBypass() {
+        return rateLimitBypass;
+    }
+    
+    /**
+     * Update the cached worldeditdisplay.bypass.ratelimit permission
+     */
+    public void setRateLimitBypass(boolean rateLimitBypass) {
+        this.rateLimitBypass = rateLimitBypass;
+    }
+    
+    /**
+     * Capture the player's position (yaw and pitch cleared) for the render lane
+     * 
+     * Must run on the thread that owns the player: the main thread on Paper,
+     * the player's region thread on Folia
+     */
+    public void captureRenderAnchor() {
+        captureRenderAnchor(player.getLocation());
+    }
+    
+    /**
+     * Use the given position as the render position, e.g. the destination of a move
+     * that has not been applied yet; must run on the thread that owns the player
+     */
+    public void captureRenderAnchor(Location location) {
+        Location anchor = location.clone();
+        anchor.setYaw(0);
+        anchor.setPitch(0);
+        this.renderAnchor = anchor;
+    }
+    
+    /**
+     * Get the last captured render position; the returned location must not be modified
+     * 
+     * @return the position, or null if it has not been captured yet
+     */
+    public Location getRenderAnchor() {
+        return renderAnchor;
+    }
+    
     // Region management methods
     
     /**
      * Get the current selection region (for non-multi selections)
      */
     public Region getSelection() {
-        return currentRegion;
+        return selections.get().current;
     }
     
     /**
      * Get a specific multi-selection region by UUID
      */
     public Region getSelection(UUID id) {
-        return multiRegions.get(id);
+        return selections.get().multi.get(id);
     }
     
     /**
@@ -120,7 +221,7 @@ public class PlayerData {
      */
     public Region getSelection(boolean multi) {
         if (!multi) {
-            return currentRegion;
+            return getSelection();
         }
         
         // 返回當前正在操作的多重選區
@@ -131,31 +232,34 @@ public class PlayerData {
      * 取得當前正在操作的多重選區
      */
     public Region getCurrentMultiRegion() {
-        if (currentMultiRegionId == null) {
+        Selections current = selections.get();
+        if (current.currentMultiId == null) {
             return null;
         }
-        return multiRegions.get(currentMultiRegionId);
+        return current.multi.get(current.currentMultiId);
     }
     
     /**
      * 設定當前正在操作的多重選區 ID
      */
     public void setCurrentMultiRegionId(UUID id) {
-        this.currentMultiRegionId = id;
+        Selections current = selections.get();
+        publish(new Selections(current.current, current.multi, id));
     }
     
     /**
      * 取得當前多重選區 ID
      */
     public UUID getCurrentMultiRegionId() {
-        return currentMultiRegionId;
+        return selections.get().currentMultiId;
     }
     
     /**
      * Set the current selection region
      */
     public void setSelection(Region region) {
-        this.currentRegion = region;
+        Selections current = selections.get();
+        publish(new Selections(region, current.multi, current.currentMultiId));
     }
     
     /**
@@ -163,14 +267,46 @@ public class PlayerData {
      */
     public void setSelection(UUID id, Region region) {
         if (id == null) {
-            this.currentRegion = region;
+            setSelection(region);
+            return;
+        }
+        
+        Selections current = selections.get();
+        Map<UUID, Region> multi = new HashMap<>(current.multi);
+        if (region == null) {
+            multi.remove(id);
         } else {
-            if (region == null) {
-                multiRegions.remove(id);
-            } else {
-                multiRegions.put(id, region);
-            }
+            multi.put(id, region);
         }
+        publish(new Selections(current.current, multi, current.currentMultiId));
+    }
+    
+    /**
+     * Change a copy of the current selection and publish the copy.
+     * The published region itself is never mutated, so readers on other
+     * threads always see a complete region. Must be called on the player's
+     * serial executor, which is the only writer of the selections.
+     *
+     * The change receives its input as an argument, so callers can pass a
+     * method reference that captures nothing instead of a new lambda per call.
+     *
+     * @param multi change the current multi-selection instead of the main selection
+     * @param change mutation applied to the unpublished copy; nothing is published if it throws
+     * @param arg input passed to the change
+     * @return false if there is no such selection
+     */
+    public <A> boolean modifySelection(boolean multi, BiConsumer<Region, ? super A> change, A arg) {
+        Selections current = selections.get();
+        UUID id = multi ? current.currentMultiId : null;
+        Region region = multi ? (id == null ? null : current.multi.get(id)) : current.current;
+        if (region == null) {
+            return false;
+        }
+        
+        Region copy = region.copy();
+        change.accept(copy, arg);
+        setSelection(id, copy);
+        return true;
     }
     
     /**
@@ -191,13 +327,10 @@ public class PlayerData {
     public void clearRegions(boolean multiOnly) {
         if (multiOnly) {
             // 只清除多重選區
-            this.multiRegions.clear();
-            this.currentMultiRegionId = null;
+            publish(new Selections(selections.get().current, Map.of(), null));
         } else {
             // 清除所有選區
-            this.currentRegion = null;
-            this.multiRegions.clear();
-            this.currentMultiRegionId = null;
+            selections.set(Selections.EMPTY);
         }
     }
     
@@ -210,9 +343,18 @@ public class PlayerData {
     
     /**
      * Get all multi-selection regions
+     * 
+     * @return immutable snapshot; later changes publish a new map
      */
     public Map<UUID, Region> getMultiRegions() {
-        return new HashMap<>(multiRegions);
+        return selections.get().multi;
+    }
+    
+    /**
+     * 發佈新的快照；只有玩家的序列執行器會寫入，因此不需要比較並交換
+     */
+    private void publish(Selections next) {
+        selections.set(next);
     }
     
     // Colour management methods
@@ -288,4 +430,22 @@ public class PlayerData {
     public boolean isBackgroundEnabled() {
         return backgroundEnabled;
     }
+    
+    /**
+     * 選區的不可變快照
+     */
+    private static final class Selections {
+        private static final Selections EMPTY = new Selections(null, Map.of(), null);
+        
+        private final Region current;
+        private final Map<UUID, Region> multi;
+        // 追蹤當前正在操作的多重選區
+        private final UUID currentMultiId;
+        
+        private Selections(Region current, Map<UUID, Region> multi, UUID currentMultiId) {
+            this.current = current;
+            this.multi = Map.copyOf(multi);
+            this.currentMultiId = currentMultiId;
+        }
+    }
 }
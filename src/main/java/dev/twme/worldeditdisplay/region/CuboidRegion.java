@@ -13,6 +13,17 @@ public class CuboidRegion extends Region {
         super(playerData);
     }
 
+    private CuboidRegion(CuboidRegion other) {
+        super(other);
+        this.point1 = other.point1;
+        this.point2 = other.point2;
+    }
+
+    @Override
+    public CuboidRegion copy() {
+        return new CuboidRegion(this);
+    }
+
     @Override
     public RegionType getType() {
         return RegionType.CUBOID;
@@ -26,6 +37,12 @@ public class CuboidRegion extends Region {
         } else if (id == 1) {
             this.point2 = point;
         }
+        markChanged();
+    }
+
+    @Override
+    protected void hashContent(RegionHasher hasher) {
+        hasher.put(point1).put(point2);
     }
 
     public Vector3 getPoint1() {
@@ -16,6 +16,20 @@ public class CylinderRegion extends Region {
         super(playerData);
     }
 
+    private CylinderRegion(CylinderRegion other) {
+        super(other);
+        this.center = other.center;
+        this.radiusX = other.radiusX;
+        this.radiusZ = other.radiusZ;
+        this.minY = other.minY;
+        this.maxY = other.maxY;
+    }
+
+    @Override
+    public CylinderRegion copy() {
+        return new CylinderRegion(this);
+    }
+
     @Override
     public RegionType getType() {
         return RegionType.CYLINDER;
@@ -24,18 +38,26 @@ public class CylinderRegion extends Region {
     @Override
     public void setCylinderCenter(int x, int y, int z) {
         this.center = Vector3.at(x, y, z);
+        markChanged();
     }
 
     @Override
     public void setCylinderRadius(double x, double z) {
         this.radiusX = x;
         this.radiusZ = z;
+        markChanged();
     }
 
     @Override
     public void setMinMax(int min, int max) {
         this.minY = min;
         this.maxY = max;
+        markChanged();
+    }
+
+    @Override
+    protected void hashContent(RegionHasher hasher) {
+        hasher.put(center).put(radiusX).put(radiusZ).put(minY).put(maxY);
     }
 
     public Vector3 getCenter() {
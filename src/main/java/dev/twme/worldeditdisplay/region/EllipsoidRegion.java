@@ -13,6 +13,17 @@ public class EllipsoidRegion extends Region {
         super(playerData);
     }
 
+    private EllipsoidRegion(EllipsoidRegion other) {
+        super(other);
+        this.center = other.center;
+        this.radii = other.radii;
+    }
+
+    @Override
+    public EllipsoidRegion copy() {
+        return new EllipsoidRegion(this);
+    }
+
     @Override
     public RegionType getType() {
         return RegionType.ELLIPSOID;
@@ -21,11 +32,18 @@ public class EllipsoidRegion extends Region {
     @Override
     public void setEllipsoidCenter(int x, int y, int z) {
         this.center = Vector3.at(x, y, z);
+        markChanged();
     }
 
     @Override
     public void setEllipsoidRadii(double x, double y, double z) {
         this.radii = Vector3.at(x, y, z);
+        markChanged();
+    }
+
+    @Override
+    protected void hashContent(RegionHasher hasher) {
+        hasher.put(center).put(radii);
     }
 
     public Vector3 getCenter() {
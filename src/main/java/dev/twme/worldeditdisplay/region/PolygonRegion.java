@@ -17,6 +17,18 @@ public class PolygonRegion extends Region {
         super(playerData);
     }
 
+    private PolygonRegion(PolygonRegion other) {
+        super(other);
+        this.points.addAll(other.points);
+        this.minY = other.minY;
+        this.maxY = other.maxY;
+    }
+
+    @Override
+    public PolygonRegion copy() {
+        return new PolygonRegion(this);
+    }
+
     @Override
     public RegionType getType() {
         return RegionType.POLYGON;
@@ -32,12 +44,23 @@ public class PolygonRegion extends Region {
         }
         
         points.set(id, point);
+        markChanged();
     }
 
     @Override
     public void setMinMax(int min, int max) {
         this.minY = min;
         this.maxY = max;
+        markChanged();
+    }
+
+    @Override
+    protected void hashContent(RegionHasher hasher) {
+        hasher.put(points.size());
+        for (Vector2 point : points) {
+            hasher.put(point);
+        }
+        hasher.put(minY).put(maxY);
     }
 
     public List<Vector2> getPoints() {
@@ -3,6 +3,7 @@ package dev.twme.worldeditdisplay.region;
 import dev.twme.worldeditdisplay.player.PlayerData;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -16,6 +17,18 @@ public class PolyhedronRegion extends Region {
         super(playerData);
     }
 
+    private PolyhedronRegion(PolyhedronRegion other) {
+        super(other);
+        // Face arrays are never modified after addPolygon, so they can be shared
+        this.vertices.addAll(other.vertices);
+        this.faces.addAll(other.faces);
+    }
+
+    @Override
+    public PolyhedronRegion copy() {
+        return new PolyhedronRegion(this);
+    }
+
     @Override
     public RegionType getType() {
         return RegionType.POLYHEDRON;
@@ -31,11 +44,28 @@ public class PolyhedronRegion extends Region {
         }
         
         vertices.set(id, vertex);
+        markChanged();
+    }
+
+    @Override
+    public void addPolygon(int[] vertexIds, int count) {
+        faces.add(Arrays.copyOf(vertexIds, count));
+        markChanged();
     }
 
     @Override
-    public void addPolygon(int[] vertexIds) {
-        faces.add(vertexIds.clone());
+    protected void hashContent(RegionHasher hasher) {
+        hasher.put(vertices.size());
+        for (Vector3 vertex : vertices) {
+            hasher.put(vertex);
+        }
+        hasher.put(faces.size());
+        for (int[] face : faces) {
+            hasher.put(face.length);
+            for (int vertexId : face) {
+                hasher.put(vertexId);
+            }
+        }
     }
 
     public List<Vector3> getVertices() {
@@ -7,6 +7,15 @@ import dev.twme.worldeditdisplay.player.PlayerData;
 /**
  * Base class for all region types
  * This class stores region data without rendering logic
+ *
+ * Every mutation bumps the region's version. {@link #snapshot()} returns an
+ * immutable stamp with a content hash that renderers use to skip redraws.
+ *
+ * Regions are copy-on-write: once a region has been published through
+ * {@link PlayerData} it is never mutated again. CUI events change a
+ * {@link #copy()} and publish it with {@link PlayerData#modifySelection},
+ * so renderers and the scheduler can read a published region from any
+ * thread. The setters below must only be called on unpublished copies.
  */
 public abstract class Region {
     protected final PlayerData playerData;
@@ -15,11 +24,35 @@ public abstract class Region {
     // 顏色材質覆寫（來自 CUI col 事件）
     // null 表示使用預設材質
     protected Material[] colorMaterials = new Material[4];
+    
+    // Incremented on every mutation
+    private long version;
+    
+    // Cached snapshot for the current version
+    private RegionSnapshot snapshot;
 
     protected Region(PlayerData playerData) {
         this.playerData = playerData;
     }
 
+    /**
+     * Copy constructor for {@link #copy()}; keeps the version so that the
+     * copy's first mutation moves on from the original's version
+     */
+    protected Region(Region other) {
+        this.playerData = other.playerData;
+        this.gridSpacing = other.gridSpacing;
+        // The array is replaced, never written to, so copies can share it
+        this.colorMaterials = other.colorMaterials;
+        this.version = other.version;
+        this.snapshot = other.snapshot;
+    }
+
+    /**
+     * Create an unpublished copy of this region that can be mutated
+     */
+    public abstract Region copy();
+
     /**
      * Get the type of this region
      */
@@ -38,6 +71,7 @@ public abstract class Region {
      */
     public void setGridSpacing(double spacing) {
         this.gridSpacing = spacing;
+        markChanged();
     }
 
     /**
@@ -58,6 +92,7 @@ public abstract class Region {
             throw new IllegalArgumentException("Color materials array must have exactly 4 elements");
         }
         this.colorMaterials = materials.clone();
+        markChanged();
     }
     
     /**
@@ -78,7 +113,49 @@ public abstract class Region {
      */
     public void clearColorMaterials() {
         this.colorMaterials = new Material[4];
+        markChanged();
+    }
+    
+    /**
+     * Record that the region has changed
+     */
+    protected void markChanged() {
+        version++;
+    }
+    
+    /**
+     * Get the current version (incremented on every mutation)
+     */
+    public long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Get an immutable snapshot of the current state
+     * The content hash is only recomputed after the region changes.
+     * Published regions never change, so concurrent readers at worst compute
+     * the same snapshot twice; RegionSnapshot is immutable and safely shared.
+     */
+    public RegionSnapshot snapshot() {
+        RegionSnapshot current = snapshot;
+        if (current == null || current.getVersion() != version) {
+            RegionHasher hasher = new RegionHasher()
+                    .put(isDefined())
+                    .put(gridSpacing);
+            for (Material material : colorMaterials) {
+                hasher.put(material);
+            }
+            hashContent(hasher);
+            current = new RegionSnapshot(getType(), version, hasher.getHash());
+            snapshot = current;
+        }
+        return current;
     }
+    
+    /**
+     * Add the type-specific geometry to the content hash
+     */
+    protected abstract void hashContent(RegionHasher hasher);
 
     /**
      * Set a cuboid point (for cuboid regions)
@@ -138,8 +215,11 @@ public abstract class Region {
 
     /**
      * Add a polygon face (for polyhedron regions)
+     *
+     * @param vertexIds buffer holding the vertex indices; it is copied, so it can be reused
+     * @param count number of vertex indices in the buffer
      */
-    public void addPolygon(int[] vertexIds) {
+    public void addPolygon(int[] vertexIds, int count) {
         throw new UnsupportedOperationException(
                 "addPolygon is not supported for " + getType().getName());
     }
@@ -0,0 +1,55 @@
+package dev.twme.worldeditdisplay.region;
+
+import org.bukkit.Material;
+
+/**
+ * 64-bit content hash builder for region snapshots (FNV-1a over 64-bit words)
+ */
+public final class RegionHasher {
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+
+    public RegionHasher put(long value) {
+        hash = (hash ^ value) * PRIME;
+        return this;
+    }
+
+    public RegionHasher put(int value) {
+        return put((long) value);
+    }
+
+    public RegionHasher put(double value) {
+        return put(Double.doubleToLongBits(value));
+    }
+
+    public RegionHasher put(boolean value) {
+        return put(value ? 1L : 0L);
+    }
+
+    /**
+     * Hash a nullable vector (null and set vectors never collide by construction)
+     */
+    public RegionHasher put(Vector3 vector) {
+        if (vector == null) {
+            return put(false);
+        }
+        return put(true).put(vector.getX()).put(vector.getY()).put(vector.getZ());
+    }
+
+    public RegionHasher put(Vector2 vector) {
+        if (vector == null) {
+            return put(false);
+        }
+        return put(true).put(vector.getX()).put(vector.getZ());
+    }
+
+    public RegionHasher put(Material material) {
+        return put(material == null ? -1 : material.ordinal());
+    }
+
+    public long getHash() {
+        return hash;
+    }
+}
@@ -0,0 +1,39 @@
+package dev.twme.worldeditdisplay.region;
+
+/**
+ * Immutable stamp of a region's state at a given version
+ *
+ * Two snapshots with the same type and content hash describe the same
+ * selection, even if they come from different Region instances
+ * (e.g. WorldEdit resending an unchanged selection).
+ */
+public final class RegionSnapshot {
+    private final RegionType type;
+    private final long version;
+    private final long contentHash;
+
+    RegionSnapshot(RegionType type, long version, long contentHash) {
+        this.type = type;
+        this.version = version;
+        this.contentHash = contentHash;
+    }
+
+    public RegionType getType() {
+        return type;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Check whether both snapshots describe the same selection content
+     */
+    public boolean sameContent(RegionSnapshot other) {
+        return other != null && type == other.type && contentHash == other.contentHash;
+    }
+}
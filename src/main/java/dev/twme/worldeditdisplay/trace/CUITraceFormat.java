@@ -0,0 +1,34 @@
+package dev.twme.worldeditdisplay.trace;
+
+/**
+ * CUI 追蹤檔格式
+ *
+ * 檔頭:
+ * - int    MAGIC ("WEDT")
+ * - short  VERSION
+ * - long   開始錄製的時間(epoch 毫秒)
+ *
+ * 之後是連續的紀錄，直到檔案結尾:
+ * - varlong 與上一筆紀錄(第一筆為開始錄製時)相差的奈秒數
+ * - long    玩家 UUID 高位
+ * - long    玩家 UUID 低位
+ * - byte    旗標(bit 0 = 多重選區訊息)
+ * - varint  訊息長度
+ * - byte[]  原始訊息內容(UTF-8)
+ *
+ * 所有數值皆為 big-endian，varint/varlong 為每 byte 7 位元的 LEB128
+ */
+public final class CUITraceFormat {
+
+    public static final int MAGIC = 0x57454454;
+    public static final short VERSION = 1;
+    public static final String FILE_EXTENSION = ".wedtrace";
+
+    public static final int FLAG_MULTI = 0x01;
+
+    // varlong(10) + UUID(16) + 旗標(1) + varint(5)
+    static final int MAX_RECORD_HEADER_BYTES = 32;
+
+    private CUITraceFormat() {
+    }
+}
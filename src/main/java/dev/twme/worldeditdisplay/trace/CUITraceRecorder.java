@@ -0,0 +1,345 @@
+package dev.twme.worldeditdisplay.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+import org.bukkit.entity.Player;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+
+/**
+ * CUI 追蹤錄製器 - 把攔截到的 worldedit:cui 訊息寫入二進位追蹤檔，供離線重現效能問題
+ *
+ * 封包監聽器只把紀錄放入佇列，寫檔在背景執行緒上透過 {@link FileChannel} 與緩衝區進行。
+ * 沒有任何玩家在錄製時，{@link #record(UUID, byte[])} 只檢查一次空的 Map
+ *
+ * 佇列已滿時丟棄紀錄並計數，不會阻塞網路執行緒。檔案格式見 {@link CUITraceFormat}
+ */
+public class CUITraceRecorder {
+
+    private static final int QUEUE_CAPACITY = 65536;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long IDLE_FLUSH_MILLIS = 100L;
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final WorldEditDisplay plugin;
+    private final Path directory;
+
+    // 玩家 UUID -> 錄製中的追蹤
+    private final Map<UUID, TraceSession> sessions = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<TraceRecord> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    // 已停止、等待佇列寫完後關閉的追蹤
+    private final Queue<TraceSession> closing = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public CUITraceRecorder(WorldEditDisplay plugin) {
+        this.plugin = plugin;
+        this.directory = plugin.getDataFolder().toPath().resolve("traces");
+    }
+
+    /**
+     * 記錄一則 CUI 訊息，在封包監聽器(網路執行緒)上呼叫
+     *
+     * @param playerId 玩家 UUID
+     * @param data 原始訊息內容，呼叫後不可再修改
+     */
+    public void record(UUID playerId, byte[] data) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        TraceSession session = sessions.get(playerId);
+        if (session == null) {
+            return;
+        }
+
+        boolean multi = data.length > 0 && data[0] == '+';
+        if (queue.offer(new TraceRecord(session, System.nanoTime(), multi, data))) {
+            session.enqueued.incrementAndGet();
+        } else {
+            session.dropped.increment();
+        }
+    }
+
+    /**
+     * 開始錄製玩家的 CUI 訊息
+     *
+     * @param player 玩家
+     * @return 追蹤檔路徑，玩家已在錄製時返回 null
+     * @throws IOException 無法建立追蹤檔時
+     */
+    public synchronized Path start(Player player) throws IOException {
+        UUID playerId = player.getUniqueId();
+        if (sessions.containsKey(playerId)) {
+            return null;
+        }
+
+        Files.createDirectories(directory);
+        Path file = directory.resolve(player.getName() + "-" + LocalDateTime.now().format(FILE_TIME)
+                + CUITraceFormat.FILE_EXTENSION);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        TraceSession session = new TraceSession(playerId, file, channel);
+        session.writeHeader();
+        startWriter();
+        sessions.put(playerId, session);
+        return file;
+    }
+
+    /**
+     * 停止錄製玩家的 CUI 訊息，已放入佇列的紀錄寫完後關閉檔案
+     *
+     * @param playerId 玩家 UUID
+     * @return 停止的追蹤，玩家不在錄製時返回 null
+     */
+    public synchronized TraceSession stop(UUID playerId) {
+        TraceSession session = sessions.remove(playerId);
+        if (session != null) {
+            session.closeAfter = session.enqueued.get();
+            closing.add(session);
+        }
+        return session;
+    }
+
+    /**
+     * 玩家是否正在錄製
+     *
+     * @param playerId 玩家 UUID
+     * @return 錄製中時返回 true
+     */
+    public boolean isTracing(UUID playerId) {
+        return sessions.containsKey(playerId);
+    }
+
+    /**
+     * 停止所有錄製，等待背景執行緒寫完並關閉檔案
+     */
+    public synchronized void shutdown() {
+        for (UUID playerId : sessions.keySet()) {
+            stop(playerId);
+        }
+        running = false;
+
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+    }
+
+    private void startWriter() {
+        if (writer != null && writer.isAlive()) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform()
+                .name("WorldEditDisplay-Trace")
+                .daemon(true)
+                .start(this::drain);
+    }
+
+    /**
+     * 背景執行緒: 寫入佇列中的紀錄，閒置時把緩衝區寫入檔案
+     *
+     * 每一輪都會檢查已停止的追蹤，其他玩家持續有流量時也能關閉檔案
+     */
+    private void drain() {
+        while (running || !queue.isEmpty() || !closing.isEmpty()) {
+            closeStopped();
+            try {
+                TraceRecord record = queue.poll(IDLE_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+                if (record != null) {
+                    record.session.write(record);
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+
+            flushAll();
+        }
+    }
+
+    /**
+     * 關閉停止前放入佇列的紀錄都已寫入的追蹤，之後才取出的紀錄會因檔案已關閉而丟棄
+     */
+    private void closeStopped() {
+        if (closing.isEmpty()) {
+            return;
+        }
+        closing.removeIf(session -> {
+            if (session.processed < session.closeAfter) {
+                return false;
+            }
+            session.close();
+            return true;
+        });
+    }
+
+    private void flushAll() {
+        for (TraceSession session : sessions.values()) {
+            session.flush();
+        }
+    }
+
+    /**
+     * 佇列中的一筆紀錄
+     */
+    private record TraceRecord(TraceSession session, long nanos, boolean multi, byte[] data) {
+    }
+
+    /**
+     * 一個玩家的追蹤檔
+     *
+     * 檔頭在 {@link #start(Player)} 時寫入，之後只在背景執行緒上寫入
+     */
+    public final class TraceSession {
+        private final UUID playerId;
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final LongAdder recorded = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        // 放入佇列的紀錄數量，停止時記下，背景執行緒取出同樣數量後才關閉檔案
+        private final AtomicLong enqueued = new AtomicLong();
+        private volatile long closeAfter = Long.MAX_VALUE;
+        // 背景執行緒已取出的紀錄數量
+        private long processed;
+        private long lastNanos;
+        private boolean failed;
+
+        private TraceSession(UUID playerId, Path file, FileChannel channel) {
+            this.playerId = playerId;
+            this.file = file;
+            this.channel = channel;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public long getRecorded() {
+            return recorded.sum();
+        }
+
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        private void writeHeader() throws IOException {
+            lastNanos = System.nanoTime();
+            buffer.putInt(CUITraceFormat.MAGIC);
+            buffer.putShort(CUITraceFormat.VERSION);
+            buffer.putLong(System.currentTimeMillis());
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void write(TraceRecord record) {
+            processed++;
+            // 停止後才寫入佇列的紀錄
+            if (failed || !channel.isOpen()) {
+                dropped.increment();
+                return;
+            }
+
+            try {
+                if (buffer.remaining() < CUITraceFormat.MAX_RECORD_HEADER_BYTES) {
+                    writeBuffer();
+                }
+                putVarLong(Math.max(0L, record.nanos - lastNanos));
+                lastNanos = record.nanos;
+
+                buffer.putLong(playerId.getMostSignificantBits());
+                buffer.putLong(playerId.getLeastSignificantBits());
+                buffer.put((byte) (record.multi ? CUITraceFormat.FLAG_MULTI : 0));
+                putVarLong(record.data.length);
+
+                if (record.data.length > buffer.remaining()) {
+                    writeBuffer();
+                }
+                if (record.data.length > buffer.remaining()) {
+                    // 比緩衝區還大的訊息直接寫入
+                    ByteBuffer data = ByteBuffer.wrap(record.data);
+                    while (data.hasRemaining()) {
+                        channel.write(data);
+                    }
+                } else {
+                    buffer.put(record.data);
+                }
+                recorded.increment();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void flush() {
+            if (failed || buffer.position() == 0) {
+                return;
+            }
+            try {
+                writeBuffer();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        private void close() {
+            flush();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to close CUI trace " + file, e);
+            }
+        }
+
+        private void writeBuffer() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void putVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        private void fail(IOException e) {
+            failed = true;
+            buffer.clear();
+            plugin.getLogger().log(Level.WARNING, "Failed to write CUI trace " + file + ", recording stopped", e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package dev.twme.worldeditdisplay.util;
+
+import java.util.function.Consumer;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+
+/**
+ * 平台排程器 - 在 Paper 與 Folia 上以相同的方式排程任務
+ *
+ * - Paper: 使用 Bukkit 排程器，所有任務都在主執行緒執行
+ * - Folia: 玩家相關的任務使用玩家的 EntityScheduler(在玩家所在區域的執行緒執行)，
+ *   全域任務使用 GlobalRegionScheduler
+ *
+ * 渲染器與玩家的選區狀態只在玩家的序列執行器({@link SerialExecutor})上操作，
+ * 透過此類別排程的任務只負責把工作轉交給序列執行器
+ */
+public class PlatformScheduler {
+
+    private static final boolean FOLIA = detectFolia();
+
+    private final Plugin plugin;
+
+    public PlatformScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * 是否在 Folia 上執行
+     *
+     * @return Folia 時返回 true
+     */
+    public static boolean isFolia() {
+        return FOLIA;
+    }
+
+    /**
+     * 延遲後在擁有玩家的執行緒上執行任務，玩家離線時不執行
+     *
+     * @param player 玩家
+     * @param task 任務
+     * @param delayTicks 延遲 tick 數
+     */
+    public void runForPlayer(Player player, Runnable task, long delayTicks) {
+        if (FOLIA) {
+            player.getScheduler().runDelayed(plugin, scheduled -> task.run(), null, Math.max(1L, delayTicks));
+            return;
+        }
+
+        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
+            if (player.isOnline()) {
+                task.run();
+            }
+        }, delayTicks);
+    }
+
+    /**
+     * 盡快在擁有玩家的執行緒上執行任務
+     *
+     * 目前執行緒已擁有玩家時(Paper 的主執行緒、Folia 上玩家所在區域的執行緒)直接執行；
+     * 否則排程到下一個 tick，玩家已離線而無法執行時改為執行 retired
+     *
+     * @param player 玩家
+     * @param task 任務
+     * @param retired 玩家離線、任務不會執行時的處理(可為 null)
+     */
+    public void executeForPlayer(Player player, Runnable task, Runnable retired) {
+        if (FOLIA) {
+            if (plugin.getServer().isOwnedByCurrentRegion(player)) {
+                task.run();
+            } else if (!player.getScheduler().execute(plugin, task, retired, 1L) && retired != null) {
+                retired.run();
+            }
+            return;
+        }
+
+        if (plugin.getServer().isPrimaryThread()) {
+            task.run();
+            return;
+        }
+        plugin.getServer().getScheduler().runTask(plugin, () -> {
+            if (player.isOnline()) {
+                task.run();
+            } else if (retired != null) {
+                retired.run();
+            }
+        });
+    }
+
+    /**
+     * 每隔固定 tick 在全域執行緒(Paper 為主執行緒)執行任務
+     *
+     * 任務不可直接操作世界或實體，需要時應轉交給對應的執行緒
+     *
+     * @param task 任務
+     * @param periodTicks 間隔 tick 數
+     * @return 可取消的任務
+     */
+    public Task runGlobalTimer(Runnable task, long periodTicks) {
+        if (FOLIA) {
+            Consumer<ScheduledTask> consumer = scheduled -> task.run();
+            ScheduledTask scheduled = plugin.getServer().getGlobalRegionScheduler()
+                    .runAtFixedRate(plugin, consumer, 1L, periodTicks);
+            return scheduled::cancel;
+        }
+
+        BukkitTask bukkitTask = plugin.getServer().getScheduler().runTaskTimer(plugin, task, 1L, periodTicks);
+        return bukkitTask::cancel;
+    }
+
+    /**
+     * 偵測 Folia 的區域化伺服器類別
+     */
+    private static boolean detectFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 已排程的任務
+     */
+    @FunctionalInterface
+    public interface Task {
+        /**
+         * 取消任務
+         */
+        void cancel();
+    }
+}
@@ -0,0 +1,90 @@
+package dev.twme.worldeditdisplay.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 序列執行器 - 依提交順序逐一執行任務
+ *
+ * 任務實際在委派的執行器上執行，但同一個序列執行器的任務永遠不會同時執行，
+ * 也不會佔用任何閒置的執行緒
+ *
+ * {@link #close(Runnable)} 之後提交的任務會被丟棄，最後一個任務永遠是佇列中的最後一個
+ */
+public class SerialExecutor implements Executor {
+
+    private final Executor delegate;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private boolean closed;
+
+    public SerialExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            tasks.add(task);
+        }
+        schedule();
+    }
+
+    /**
+     * 加入最後一個任務，之後提交的任務都會被丟棄
+     *
+     * @param task 最後的任務
+     */
+    public void close(Runnable task) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            tasks.add(task);
+            closed = true;
+        }
+        schedule();
+    }
+
+    /**
+     * 是否沒有等待中或執行中的任務
+     *
+     * @return 閒置時返回 true
+     */
+    public boolean isIdle() {
+        return !running.get() && tasks.isEmpty();
+    }
+
+    private void schedule() {
+        if (tasks.isEmpty() || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            delegate.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // 委派的執行器已關閉，丟棄剩餘任務
+            tasks.clear();
+            running.set(false);
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        } finally {
+            running.set(false);
+            // 檢查期間是否有新任務加入
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.twme.worldeditdisplay.display;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+
+class LineBufferTest {
+
+    @Test
+    void clearResetsPalette() {
+        LineBuffer buffer = new LineBuffer();
+        for (int render = 0; render < 100; render++) {
+            buffer.clear();
+            buffer.add(0, 0, 0, 1, 0, 0, Material.STONE, render * 0.01f);
+            buffer.add(0, 0, 0, 0, 1, 0, Material.DIRT, render * 0.01f + 0.5f);
+
+            // 每次渲染的調色盤都從頭開始，不會累積之前用過的粗細
+            assertEquals(0, buffer.getThicknessIndex(0));
+            assertEquals(1, buffer.getThicknessIndex(1));
+            assertEquals(0, buffer.getMaterialIndex(0));
+            assertEquals(1, buffer.getMaterialIndex(1));
+        }
+        assertEquals(99 * 0.01f, buffer.getThickness(0));
+        assertEquals(Material.DIRT, buffer.getMaterial(1));
+    }
+
+    @Test
+    void copyFromReplacesContent() {
+        LineBuffer source = new LineBuffer();
+        source.add(1, 2, 3, 4, 5, 6, Material.STONE, 0.1f);
+        source.setPass(LineBuffer.PASS_DETAIL);
+        for (int i = 0; i < 100; i++) {
+            source.add(i, 0, 0, i, 1, 0, Material.DIRT, 0.05f);
+        }
+
+        LineBuffer target = new LineBuffer();
+        target.add(9, 9, 9, 9, 9, 9, Material.GLASS, 0.3f);
+        target.copyFrom(source);
+
+        assertEquals(101, target.size());
+        assertEquals(Material.STONE, target.getMaterial(0));
+        assertEquals(6f, target.getEndZ(0));
+        assertEquals(LineBuffer.PASS_OUTLINE, target.getPass(0));
+        assertEquals(Material.DIRT, target.getMaterial(100));
+        assertEquals(99f, target.getStartX(100));
+        assertEquals(0.05f, target.getThickness(100));
+        assertEquals(LineBuffer.PASS_DETAIL, target.getPass(100));
+    }
+}
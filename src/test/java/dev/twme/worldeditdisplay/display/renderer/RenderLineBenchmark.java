@@ -0,0 +1,149 @@
+package dev.twme.worldeditdisplay.display.renderer;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.entity.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.config.PlayerRenderSettings;
+import dev.twme.worldeditdisplay.config.RenderSettings;
+import dev.twme.worldeditdisplay.display.LineBuffer;
+import dev.twme.worldeditdisplay.display.RenderManager;
+import dev.twme.worldeditdisplay.display.RenderQuality;
+import dev.twme.worldeditdisplay.display.RenderQualityMonitor;
+import dev.twme.worldeditdisplay.player.PlayerData;
+import dev.twme.worldeditdisplay.region.CuboidRegion;
+import dev.twme.worldeditdisplay.region.CylinderRegion;
+import dev.twme.worldeditdisplay.region.EllipsoidRegion;
+import dev.twme.worldeditdisplay.region.Region;
+
+/**
+ * 幾何階段(renderLine)的耗時與配置量
+ *
+ * 使用伺服器預設的渲染設定；gc.alloc.rate.norm 是每次渲染配置的位元組。
+ * 每次渲染查詢品質與玩家數據時會呼叫 Mockito 假物件，這部分配置由 {@link #mockCalls()}
+ * 單獨量測，兩者相減才是幾何階段本身的配置量(應與線段數量無關並接近 0)
+ *
+ * 執行: 以測試 classpath 執行 {@link #main(String[])}，或 org.openjdk.jmh.Main RenderLineBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderLineBenchmark {
+
+    @Param({ "CUBOID", "CYLINDER", "ELLIPSOID" })
+    public String shape;
+
+    private final UUID playerId = UUID.randomUUID();
+
+    private WorldEditDisplay plugin;
+    private Player player;
+    private File dataFolder;
+    private RegionRenderer<Region> renderer;
+    private Region region;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // 只回傳預設值的假物件，不記錄呼叫，避免基準測試期間累積記憶體
+        plugin = mock(WorldEditDisplay.class, withSettings().stubOnly());
+        player = mock(Player.class, withSettings().stubOnly());
+        RenderManager renderManager = mock(RenderManager.class, withSettings().stubOnly());
+        RenderQualityMonitor qualityMonitor = mock(RenderQualityMonitor.class, withSettings().stubOnly());
+
+        dataFolder = Files.createTempDirectory("render-line-benchmark").toFile();
+        RenderSettings renderSettings = new RenderSettings(plugin);
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        when(plugin.getRenderSettings()).thenReturn(renderSettings);
+        when(plugin.getRenderManager()).thenReturn(renderManager);
+        when(renderManager.getQualityMonitor()).thenReturn(qualityMonitor);
+        when(qualityMonitor.getLevel()).thenReturn(RenderQuality.FULL);
+        when(player.getUniqueId()).thenReturn(playerId);
+
+        PlayerRenderSettings settings = new PlayerRenderSettings(plugin, playerId);
+        PlayerData playerData = PlayerData.getPlayerData(player);
+
+        switch (shape) {
+            case "CUBOID" -> {
+                CuboidRegion cuboid = new CuboidRegion(playerData);
+                cuboid.setCuboidPoint(0, 0, 0, 0);
+                cuboid.setCuboidPoint(1, 31, 31, 31);
+                use(new CuboidRenderer(plugin, player, settings), cuboid);
+            }
+            case "CYLINDER" -> {
+                CylinderRegion cylinder = new CylinderRegion(playerData);
+                cylinder.setCylinderCenter(0, 64, 0);
+                cylinder.setCylinderRadius(20, 20);
+                cylinder.setMinMax(48, 80);
+                use(new CylinderRenderer(plugin, player, settings), cylinder);
+            }
+            case "ELLIPSOID" -> {
+                EllipsoidRegion ellipsoid = new EllipsoidRegion(playerData);
+                ellipsoid.setEllipsoidCenter(0, 64, 0);
+                ellipsoid.setEllipsoidRadii(20, 20, 20);
+                use(new EllipsoidRenderer(plugin, player, settings), ellipsoid);
+            }
+            default -> throw new IllegalArgumentException(shape);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void use(RegionRenderer<? extends Region> renderer, Region region) {
+        this.renderer = (RegionRenderer<Region>) renderer;
+        this.region = region;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        PlayerData.removePlayerData(playerId);
+        new File(dataFolder, "player_config").delete();
+        dataFolder.delete();
+    }
+
+    @Benchmark
+    public LineBuffer buildGeometry() {
+        return renderer.buildGeometry(region);
+    }
+
+    /**
+     * 只執行一次渲染中對假物件的呼叫，作為配置量的基準
+     */
+    @Benchmark
+    public Object mockCalls() {
+        plugin.getRenderManager().getQualityMonitor().getLevel();
+        return PlayerData.getPlayerData(player);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RenderLineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
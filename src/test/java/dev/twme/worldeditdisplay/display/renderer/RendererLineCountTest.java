@@ -0,0 +1,162 @@
+package dev.twme.worldeditdisplay.display.renderer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.config.PlayerRenderSettings;
+import dev.twme.worldeditdisplay.config.RenderSettings;
+import dev.twme.worldeditdisplay.display.DisplayBackend;
+import dev.twme.worldeditdisplay.display.LineBuffer;
+import dev.twme.worldeditdisplay.display.RenderManager;
+import dev.twme.worldeditdisplay.display.RenderQuality;
+import dev.twme.worldeditdisplay.display.RenderQualityMonitor;
+import dev.twme.worldeditdisplay.player.PlayerData;
+import dev.twme.worldeditdisplay.region.CuboidRegion;
+import dev.twme.worldeditdisplay.region.PolygonRegion;
+
+/**
+ * 幾何階段輸出的線段數量(只執行 buildGeometry，不發送封包)
+ */
+class RendererLineCountTest {
+
+    private final UUID playerId = UUID.randomUUID();
+
+    private WorldEditDisplay plugin;
+    private Player player;
+    private PlayerRenderSettings settings;
+    private RenderQualityMonitor qualityMonitor;
+
+    @BeforeEach
+    void setUp() {
+        plugin = mock(WorldEditDisplay.class);
+        player = mock(Player.class);
+        settings = mock(PlayerRenderSettings.class);
+        qualityMonitor = mock(RenderQualityMonitor.class);
+
+        RenderSettings renderSettings = mock(RenderSettings.class);
+        RenderManager renderManager = mock(RenderManager.class);
+        when(plugin.getRenderSettings()).thenReturn(renderSettings);
+        when(plugin.getRenderManager()).thenReturn(renderManager);
+        when(renderSettings.getDisplayBackend()).thenReturn(DisplayBackend.PACKET);
+        when(renderManager.getQualityMonitor()).thenReturn(qualityMonitor);
+        when(qualityMonitor.getLevel()).thenReturn(RenderQuality.FULL);
+        when(player.getUniqueId()).thenReturn(playerId);
+
+        // 高度 / 10 的網格間距，不限制最大間距
+        when(settings.getCuboidHeightGridDivision()).thenReturn(10);
+        when(settings.getCuboidMaxGridSpacing()).thenReturn(-1);
+        when(settings.getPolygonHeightGridDivision()).thenReturn(10);
+        when(settings.getPolygonMaxGridSpacing()).thenReturn(-1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PlayerData.removePlayerData(playerId);
+    }
+
+    @Test
+    void cuboidOutlineOnly() {
+        when(qualityMonitor.getLevel()).thenReturn(RenderQuality.NO_GRID);
+
+        LineBuffer lines = new CuboidRenderer(plugin, player, settings).buildGeometry(cuboid(0, 0, 0, 9, 9, 9));
+
+        // 2 個選取點標記 + 外框，各 12 條
+        assertEquals(36, lines.size());
+        assertEquals(0, countPass(lines, LineBuffer.PASS_DETAIL));
+    }
+
+    @Test
+    void cuboidWithGrid() {
+        LineBuffer lines = new CuboidRenderer(plugin, player, settings).buildGeometry(cuboid(0, 0, 0, 9, 9, 9));
+
+        // 邊長 10、間距 1：每個面兩個方向各 10 條(與外框重疊的最後一條略過)，共 6 個面
+        assertEquals(36 + 6 * 2 * 10, lines.size());
+        assertEquals(6 * 2 * 10, countPass(lines, LineBuffer.PASS_DETAIL));
+    }
+
+    @Test
+    void cuboidWithSinglePoint() {
+        CuboidRegion region = new CuboidRegion(null);
+        region.setCuboidPoint(0, 5, 5, 5);
+
+        LineBuffer lines = new CuboidRenderer(plugin, player, settings).buildGeometry(region);
+
+        assertEquals(12, lines.size());
+    }
+
+    @Test
+    void polygonWithLayers() {
+        LineBuffer lines = new PolygonRenderer(plugin, player, settings).buildGeometry(square(0, 9));
+
+        // 高度 10、間隔 1：y = 0..10 共 11 層邊框，4 條垂直線，4 個頂點標記
+        assertEquals(11 * 4 + 4 + 4 * 12, lines.size());
+        // 中間的 9 層是細節
+        assertEquals(9 * 4, countPass(lines, LineBuffer.PASS_DETAIL));
+    }
+
+    @Test
+    void polygonOutlineOnly() {
+        when(qualityMonitor.getLevel()).thenReturn(RenderQuality.NO_GRID);
+
+        LineBuffer lines = new PolygonRenderer(plugin, player, settings).buildGeometry(square(0, 9));
+
+        // 只有底部與頂部的邊框
+        assertEquals(2 * 4 + 4 + 4 * 12, lines.size());
+        assertEquals(0, countPass(lines, LineBuffer.PASS_DETAIL));
+    }
+
+    @Test
+    void polygonWithReducedGrid() {
+        when(qualityMonitor.getLevel()).thenReturn(RenderQuality.REDUCED_GRID);
+
+        LineBuffer lines = new PolygonRenderer(plugin, player, settings).buildGeometry(square(0, 9));
+
+        // 間隔加倍為 2：y = 0, 2, ..., 10 共 6 層
+        assertEquals(6 * 4 + 4 + 4 * 12, lines.size());
+    }
+
+    @Test
+    void repeatedRenderDoesNotAccumulate() {
+        CuboidRenderer renderer = new CuboidRenderer(plugin, player, settings);
+        CuboidRegion region = cuboid(0, 0, 0, 9, 9, 9);
+
+        renderer.buildGeometry(region);
+        assertEquals(156, renderer.buildGeometry(region).size());
+    }
+
+    private static CuboidRegion cuboid(int x1, int y1, int z1, int x2, int y2, int z2) {
+        CuboidRegion region = new CuboidRegion(null);
+        region.setCuboidPoint(0, x1, y1, z1);
+        region.setCuboidPoint(1, x2, y2, z2);
+        return region;
+    }
+
+    private static PolygonRegion square(int minY, int maxY) {
+        PolygonRegion region = new PolygonRegion(null);
+        region.setPolygonPoint(0, 0, 0);
+        region.setPolygonPoint(1, 4, 0);
+        region.setPolygonPoint(2, 4, 4);
+        region.setPolygonPoint(3, 0, 4);
+        region.setMinMax(minY, maxY);
+        return region;
+    }
+
+    private static int countPass(LineBuffer lines, int pass) {
+        int count = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.getPass(i) == pass) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
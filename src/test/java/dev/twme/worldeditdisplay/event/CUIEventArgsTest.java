@@ -0,0 +1,64 @@
+package dev.twme.worldeditdisplay.event;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CUIEventArgsTest {
+
+    private final CUIEventArgs args = new CUIEventArgs(null);
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "s|cuboid",
+        "s|",
+        "s||",
+        "s||cuboid",
+        "s|cuboid|",
+        "p|0|1|2|3|",
+        "p|0||2||4",
+        "+s|cuboid|00000000-0000-0000-0000-000000000001",
+        "+p|",
+        "u|",
+        "poly|1|2||3|"
+    })
+    void fieldsMatchSplit(String message) {
+        // 與原本 OutboundPacketListener 的 split("\\|", -1) 切出相同的參數
+        String[] split = message.split("\\|", -1);
+        String key = split[0].startsWith("+") ? split[0].substring(1) : split[0];
+
+        CUIEventType type = args.parse(message.getBytes(StandardCharsets.UTF_8));
+        assertSame(CUIEventType.fromKey(key.getBytes(StandardCharsets.UTF_8), 0, key.length()), type);
+        assertEquals(split[0].startsWith("+"), args.isMulti());
+        assertEquals(split.length - 1, args.size());
+        for (int i = 0; i < args.size(); i++) {
+            assertEquals(split[i + 1], args.getString(i));
+        }
+    }
+
+    @Test
+    void intsReuseBuffer() {
+        args.parse("poly|0|1|2|3".getBytes(StandardCharsets.UTF_8));
+        int[] first = args.getInts();
+        assertArrayEquals(new int[] { 0, 1, 2, 3 }, Arrays.copyOf(first, args.size()));
+
+        args.parse("poly|7|8|9".getBytes(StandardCharsets.UTF_8));
+        int[] second = args.getInts();
+        assertSame(first, second);
+        assertArrayEquals(new int[] { 7, 8, 9 }, Arrays.copyOf(second, args.size()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "|", "||s", "+", "+|cuboid", "|s|cuboid" })
+    void emptyKeyIsUnknown(String message) {
+        assertNull(args.parse(message.getBytes(StandardCharsets.UTF_8)));
+    }
+}
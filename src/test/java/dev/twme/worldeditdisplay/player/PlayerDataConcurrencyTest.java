@@ -0,0 +1,302 @@
+package dev.twme.worldeditdisplay.player;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.event.CUIMessageProcessor;
+import dev.twme.worldeditdisplay.listener.PlayerQuitListener;
+import dev.twme.worldeditdisplay.region.CuboidRegion;
+import dev.twme.worldeditdisplay.region.Region;
+
+/**
+ * Join, quit and CUI traffic running at the same time against the PlayerData
+ * registry and the per-player lanes
+ */
+class PlayerDataConcurrencyTest {
+
+    private static final long TIMEOUT_SECONDS = 30L;
+
+    private final List<UUID> playerIds = new ArrayList<>();
+
+    private WorldEditDisplay plugin;
+    private CUIMessageProcessor processor;
+    private PlayerQuitListener quitListener;
+
+    @BeforeEach
+    void setUp() {
+        plugin = mock(WorldEditDisplay.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("PlayerDataConcurrencyTest"));
+        processor = new CUIMessageProcessor(plugin);
+        when(plugin.getCUIMessageProcessor()).thenReturn(processor);
+        quitListener = new PlayerQuitListener(plugin);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.shutdown();
+        playerIds.forEach(PlayerData::removePlayerData);
+    }
+
+    @Test
+    void concurrentJoinQuitAndCuiTraffic() throws Exception {
+        int players = 16;
+        int sessions = 40;
+        int messagesPerSession = 20;
+        for (int i = 0; i < players; i++) {
+            playerIds.add(UUID.randomUUID());
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        CyclicBarrier start = new CyclicBarrier(players + 1);
+        ExecutorService threads = Executors.newFixedThreadPool(players + 1);
+        try {
+            // Readers on other threads must only ever see complete, published snapshots
+            Future<?> reader = threads.submit(() -> {
+                start.await();
+                while (running.get()) {
+                    for (UUID playerId : playerIds) {
+                        PlayerData data = PlayerData.getPlayerData(playerId);
+                        if (data == null) {
+                            continue;
+                        }
+                        Region selection = data.getSelection();
+                        if (selection instanceof CuboidRegion cuboid && cuboid.getPoint2() != null) {
+                            assertNotNull(cuboid.getPoint1());
+                        }
+                        for (Map.Entry<UUID, Region> entry : data.getMultiRegions().entrySet()) {
+                            assertNotNull(entry.getValue());
+                        }
+                    }
+                }
+                return null;
+            });
+
+            List<Future<PlayerData>> writers = new ArrayList<>();
+            for (UUID playerId : playerIds) {
+                writers.add(threads.submit(() -> {
+                    start.await();
+                    PlayerData last = null;
+                    for (int session = 0; session < sessions; session++) {
+                        Player player = player(playerId);
+                        last = join(player);
+                        for (int i = 0; i < messagesPerSession; i++) {
+                            processor.submit(last, cuboidMessage(i));
+                            processor.submit(last, multiMessage(i));
+                        }
+                        if (session < sessions - 1) {
+                            quit(player);
+                        }
+                    }
+                    return last;
+                }));
+            }
+
+            for (int i = 0; i < players; i++) {
+                PlayerData last = writers.get(i).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                UUID playerId = playerIds.get(i);
+                awaitLane(playerId);
+
+                // The last session survives every earlier session's cleanup
+                assertSame(last, PlayerData.getPlayerData(playerId));
+            }
+            running.set(false);
+            reader.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } finally {
+            running.set(false);
+            threads.shutdownNow();
+        }
+
+        // Messages dropped by a closing lane are never counted, but none may be rejected
+        assertEquals(0, processor.getStats().getRejected());
+
+        for (UUID playerId : playerIds) {
+            quit(PlayerData.getPlayerData(playerId).getPlayer());
+            awaitRemoved(playerId);
+        }
+    }
+
+    @Test
+    void rejoinBeforeCleanupKeepsNewSession() throws Exception {
+        UUID playerId = UUID.randomUUID();
+        playerIds.add(playerId);
+        Player first = player(playerId);
+        PlayerData firstData = join(first);
+
+        // Hold the lane so that the quit cleanup has not run when the player rejoins
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        processor.execute(playerId, () -> {
+            blocked.countDown();
+            await(release);
+        });
+        assertTrue(blocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        quit(first);
+
+        Player second = player(playerId);
+        PlayerData secondData = join(second);
+        assertNotSameData(firstData, secondData);
+
+        release.countDown();
+        awaitLane(playerId);
+
+        assertSame(secondData, PlayerData.getPlayerData(playerId));
+        assertSame(second, PlayerData.getPlayerData(playerId).getPlayer());
+    }
+
+    @Test
+    void selectionsFollowMessageOrder() throws Exception {
+        UUID playerId = UUID.randomUUID();
+        playerIds.add(playerId);
+        PlayerData data = join(player(playerId));
+
+        // The last three messages select a new cuboid and set both of its points
+        for (int i = 0; i <= 200; i++) {
+            processor.submit(data, cuboidMessage(i));
+        }
+        awaitLane(playerId);
+
+        CuboidRegion cuboid = assertInstanceOf(CuboidRegion.class, data.getSelection());
+        assertEquals(199.0, cuboid.getPoint1().getX());
+        assertEquals(208.0, cuboid.getPoint2().getX());
+    }
+
+    @Test
+    void permissionRefreshAfterQuitDoesNotRecreate() throws Exception {
+        UUID playerId = UUID.randomUUID();
+        playerIds.add(playerId);
+        Player player = player(playerId);
+        join(player);
+
+        quit(player);
+        awaitRemoved(playerId);
+
+        new PermissionCache(plugin).refresh(player);
+        assertNull(PlayerData.getPlayerData(playerId));
+    }
+
+    @Test
+    void taskAfterCleanupIsDropped() throws Exception {
+        UUID playerId = UUID.randomUUID();
+        playerIds.add(playerId);
+        Player player = player(playerId);
+        PlayerData data = join(player);
+
+        quit(player);
+        awaitRemoved(playerId);
+
+        // A late packet or scheduler task must not open a lane that nothing would close
+        CountDownLatch ran = new CountDownLatch(1);
+        processor.execute(playerId, ran::countDown);
+        processor.submit(data, cuboidMessage(0));
+        assertFalse(ran.await(200, TimeUnit.MILLISECONDS));
+        assertNull(PlayerData.getPlayerData(playerId));
+
+        // The next session gets a working lane again
+        join(player(playerId));
+        awaitLane(playerId);
+    }
+
+    private PlayerData join(Player player) {
+        PlayerData data = PlayerData.getPlayerData(player);
+        data.setUseAllowed(true);
+        return data;
+    }
+
+    private void quit(Player player) {
+        PlayerQuitEvent event = mock(PlayerQuitEvent.class);
+        when(event.getPlayer()).thenReturn(player);
+        quitListener.onPlayerQuit(event);
+    }
+
+    private static Player player(UUID playerId) {
+        Player player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(playerId);
+        when(player.isOnline()).thenReturn(true);
+        return player;
+    }
+
+    /**
+     * Wait until every task submitted to the player's lane so far has run
+     */
+    private void awaitLane(UUID playerId) throws InterruptedException {
+        // Retry until the barrier is not dropped by a lane that is still closing
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            CountDownLatch done = new CountDownLatch(1);
+            processor.execute(playerId, done::countDown);
+            if (done.await(100, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+        throw new AssertionError("Lane of " + playerId + " did not drain");
+    }
+
+    private static void awaitRemoved(UUID playerId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (PlayerData.getPlayerData(playerId) != null) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("PlayerData of " + playerId + " was not removed");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void assertNotSameData(PlayerData expected, PlayerData actual) {
+        assertTrue(expected != actual, "a rejoin must not reuse the previous session's PlayerData");
+    }
+
+    private static byte[] cuboidMessage(int i) {
+        return switch (i % 3) {
+            case 0 -> bytes("s|cuboid");
+            case 1 -> bytes("p|0|" + i + "|64|" + i + "|0");
+            default -> bytes("p|1|" + (i + 8) + "|72|" + (i + 8) + "|729");
+        };
+    }
+
+    private static byte[] multiMessage(int i) {
+        UUID id = new UUID(0L, i % 4);
+        return i % 2 == 0
+                ? bytes("+s|cuboid|" + id)
+                : bytes("+p|0|" + i + "|64|" + i + "|0");
+    }
+
+    private static byte[] bytes(String message) {
+        return message.getBytes(StandardCharsets.UTF_8);
+    }
+}
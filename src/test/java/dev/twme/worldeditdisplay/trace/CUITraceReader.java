@@ -0,0 +1,117 @@
+package dev.twme.worldeditdisplay.trace;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * CUI 追蹤檔讀取器 - 依序讀取 {@link CUITraceRecorder} 寫入的紀錄
+ *
+ * 為了減少配置，每次 {@link #next()} 都覆寫同一組欄位，
+ * 只有訊息內容會配置新的陣列(之後會交給其他執行緒處理)
+ */
+public class CUITraceReader implements Closeable {
+
+    private final DataInputStream input;
+    private final long startEpochMillis;
+
+    private long offsetNanos;
+    private UUID playerId;
+    private boolean multi;
+    private byte[] data;
+
+    /**
+     * 開啟追蹤檔並讀取檔頭
+     *
+     * @param file 追蹤檔
+     * @throws IOException 無法讀取或不是追蹤檔時
+     */
+    public CUITraceReader(Path file) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        try {
+            if (input.readInt() != CUITraceFormat.MAGIC) {
+                throw new IOException("Not a CUI trace file: " + file);
+            }
+            short version = input.readShort();
+            if (version != CUITraceFormat.VERSION) {
+                throw new IOException("Unsupported CUI trace version " + version + ": " + file);
+            }
+            this.startEpochMillis = input.readLong();
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 讀取下一筆紀錄
+     *
+     * @return 有紀錄時返回 true，檔案結束時返回 false
+     * @throws IOException 讀取失敗或紀錄不完整時
+     */
+    public boolean next() throws IOException {
+        long delta;
+        try {
+            delta = readVarLong();
+        } catch (EOFException e) {
+            return false;
+        }
+
+        offsetNanos += delta;
+        playerId = new UUID(input.readLong(), input.readLong());
+        multi = (input.readByte() & CUITraceFormat.FLAG_MULTI) != 0;
+
+        long length = readVarLong();
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt CUI trace record length: " + length);
+        }
+        data = new byte[(int) length];
+        input.readFully(data);
+        return true;
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    /**
+     * @return 目前紀錄距離開始錄製的奈秒數
+     */
+    public long getOffsetNanos() {
+        return offsetNanos;
+    }
+
+    public UUID getPlayerId() {
+        return playerId;
+    }
+
+    public boolean isMulti() {
+        return multi;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = input.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt CUI trace varint");
+    }
+}
@@ -0,0 +1,345 @@
+package dev.twme.worldeditdisplay.trace;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.mockito.MockedStatic;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.PacketEventsAPI;
+import com.github.retrooper.packetevents.manager.player.PlayerManager;
+import com.github.retrooper.packetevents.manager.server.ServerManager;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.settings.PacketEventsSettings;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+
+import dev.twme.worldeditdisplay.WorldEditDisplay;
+import dev.twme.worldeditdisplay.config.PlayerRenderSettings;
+import dev.twme.worldeditdisplay.config.RenderSettings;
+import dev.twme.worldeditdisplay.display.DisplayBackend;
+import dev.twme.worldeditdisplay.display.DisplayItemCache;
+import dev.twme.worldeditdisplay.display.EntityDestroyBatch;
+import dev.twme.worldeditdisplay.display.PacketBundle;
+import dev.twme.worldeditdisplay.display.RenderManager;
+import dev.twme.worldeditdisplay.display.RenderQuality;
+import dev.twme.worldeditdisplay.display.RenderQualityMonitor;
+import dev.twme.worldeditdisplay.display.RendererFactory;
+import dev.twme.worldeditdisplay.display.renderer.CuboidRenderer;
+import dev.twme.worldeditdisplay.display.renderer.CylinderRenderer;
+import dev.twme.worldeditdisplay.display.renderer.EllipsoidRenderer;
+import dev.twme.worldeditdisplay.display.renderer.PolygonRenderer;
+import dev.twme.worldeditdisplay.display.renderer.PolyhedronRenderer;
+import dev.twme.worldeditdisplay.display.renderer.RegionRenderer;
+import dev.twme.worldeditdisplay.player.PlayerData;
+import dev.twme.worldeditdisplay.region.CuboidRegion;
+import dev.twme.worldeditdisplay.region.CylinderRegion;
+import dev.twme.worldeditdisplay.region.EllipsoidRegion;
+import dev.twme.worldeditdisplay.region.PolygonRegion;
+import dev.twme.worldeditdisplay.region.PolyhedronRegion;
+import dev.twme.worldeditdisplay.region.Region;
+import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import me.tofaa.entitylib.EntityIdProvider;
+import me.tofaa.entitylib.EntityLib;
+import me.tofaa.entitylib.EntityLibAPI;
+import me.tofaa.entitylib.Platform;
+
+/**
+ * CUI 追蹤重播 - 把 {@link CUITraceRecorder} 錄製的訊息套用到選區，量測每次選區變化發送的封包與位元組
+ *
+ * 不需要伺服器或客戶端：訊息直接交給玩家的 {@link dev.twme.worldeditdisplay.event.CUIEventDispatcher}，
+ * 每則改變選區的訊息之後立即以伺服器預設的渲染設定渲染主選區與所有多選區，
+ * 封包交給記錄用的接收端，依類型計算數量並以伺服器版本編碼計算位元組。
+ *
+ * 與伺服器上的差異：
+ * - 每次選區變化都會渲染，不經過合併、靜止時間、頻率上限與每 tick 預算
+ * - 使用 PACKET 後端(ENTITYLIB 後端發送相同的封包，但需要完整的 EntityLib)
+ * - 錨點固定在原點，線段物品一律是石頭
+ * - 位元組包含封包 ID，不含連線的長度前綴與壓縮
+ *
+ * 執行: 以測試 classpath 執行 {@link #main(String[])}，參數為追蹤檔與(可選)要重播的玩家 UUID，
+ * 預設重播第一筆紀錄的玩家
+ */
+public class CUITraceReplay {
+
+    private final UUID playerId = UUID.randomUUID();
+    private final Map<Class<? extends Region>, RendererFactory<?>> rendererFactories = new HashMap<>();
+
+    // 選區 ID(主選區為 null) -> 渲染器
+    private final Map<UUID, RegionRenderer<?>> renderers = new HashMap<>();
+
+    private final PacketSink sink = new PacketSink();
+
+    private WorldEditDisplay plugin;
+    private Player player;
+    private PlayerData playerData;
+    private PlayerRenderSettings settings;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: CUITraceReplay <trace file> [player uuid]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        UUID sourceId = args.length > 1 ? UUID.fromString(args[1]) : null;
+
+        Result result = new CUITraceReplay().replay(file, sourceId);
+        System.out.println(result.format());
+    }
+
+    /**
+     * 重播追蹤檔中單一玩家的訊息
+     *
+     * @param file 追蹤檔
+     * @param sourceId 要重播的玩家，null 時重播第一筆紀錄的玩家
+     * @return 量測結果
+     */
+    public Result replay(Path file, UUID sourceId) throws IOException {
+        File dataFolder = Files.createTempDirectory("cui-trace-replay").toFile();
+        try (MockedStatic<PacketEvents> packetEvents = mockStatic(PacketEvents.class);
+             MockedStatic<EntityLib> entityLib = mockStatic(EntityLib.class)) {
+            PacketEventsAPI<?> api = createPacketEventsApi();
+            packetEvents.when(PacketEvents::getAPI).thenReturn(api);
+            Platform<?> platform = createEntityLibPlatform();
+            EntityLibAPI<?> entityLibApi = mock(EntityLibAPI.class);
+            doReturn(api).when(entityLibApi).getPacketEvents();
+            entityLib.when(EntityLib::getPlatform).thenReturn(platform);
+            // ItemDisplayMeta 依伺服器版本決定 metadata 索引
+            entityLib.when(EntityLib::getApi).thenReturn(entityLibApi);
+
+            setUp(dataFolder);
+            try {
+                return replayMessages(file, sourceId);
+            } finally {
+                PlayerData.removePlayerData(playerId);
+            }
+        } finally {
+            new File(dataFolder, "player_config").delete();
+            dataFolder.delete();
+        }
+    }
+
+    private void setUp(File dataFolder) {
+        plugin = mock(WorldEditDisplay.class);
+        player = mock(Player.class);
+        RenderManager renderManager = mock(RenderManager.class);
+        RenderQualityMonitor qualityMonitor = mock(RenderQualityMonitor.class);
+        DisplayItemCache itemCache = mock(DisplayItemCache.class);
+
+        when(plugin.getDataFolder()).thenReturn(dataFolder);
+        RenderSettings renderSettings = spy(new RenderSettings(plugin));
+        doReturn(DisplayBackend.PACKET).when(renderSettings).getDisplayBackend();
+        when(plugin.getRenderSettings()).thenReturn(renderSettings);
+        when(plugin.getRenderManager()).thenReturn(renderManager);
+        when(plugin.getDisplayItemCache()).thenReturn(itemCache);
+        when(renderManager.getQualityMonitor()).thenReturn(qualityMonitor);
+        when(qualityMonitor.getLevel()).thenReturn(RenderQuality.FULL);
+        when(itemCache.get(any())).thenReturn(ItemStack.builder().type(ItemTypes.STONE).amount(1).build());
+        when(player.getUniqueId()).thenReturn(playerId);
+        when(player.getName()).thenReturn("replay");
+        when(player.isOnline()).thenReturn(true);
+
+        settings = new PlayerRenderSettings(plugin, playerId);
+        playerData = PlayerData.getPlayerData(player);
+        playerData.captureRenderAnchor(new Location(null, 0, 64, 0));
+
+        // 與 RenderManager 註冊的渲染器相同
+        registerRenderer(CuboidRegion.class, CuboidRenderer::new);
+        registerRenderer(PolygonRegion.class, PolygonRenderer::new);
+        registerRenderer(EllipsoidRegion.class, EllipsoidRenderer::new);
+        registerRenderer(CylinderRegion.class, CylinderRenderer::new);
+        registerRenderer(PolyhedronRegion.class, PolyhedronRenderer::new);
+    }
+
+    private <T extends Region> void registerRenderer(Class<T> regionType, RendererFactory<T> factory) {
+        rendererFactories.put(regionType, factory);
+    }
+
+    private PacketEventsAPI<?> createPacketEventsApi() {
+        PacketEventsAPI<?> api = mock(PacketEventsAPI.class);
+        PlayerManager playerManager = mock(PlayerManager.class);
+        ServerManager serverManager = mock(ServerManager.class);
+        ServerVersion version = ServerVersion.getLatest();
+
+        when(api.getPlayerManager()).thenReturn(playerManager);
+        when(api.getServerManager()).thenReturn(serverManager);
+        when(api.getNettyManager()).thenReturn(new NettyManagerImpl());
+        when(api.getSettings()).thenReturn(new PacketEventsSettings());
+        when(serverManager.getVersion()).thenReturn(version);
+        when(playerManager.getClientVersion(any())).thenReturn(version.toClientVersion());
+        doAnswer(invocation -> {
+            sink.record(invocation.getArgument(1));
+            return null;
+        }).when(playerManager).sendPacket(any(), any());
+        return api;
+    }
+
+    private static Platform<?> createEntityLibPlatform() {
+        Platform<?> platform = mock(Platform.class);
+        EntityIdProvider idProvider = mock(EntityIdProvider.class);
+        int[] nextId = { 1_000_000 };
+        when(idProvider.provide(any(), any())).thenAnswer(invocation -> nextId[0]++);
+        when(platform.getEntityIdProvider()).thenReturn(idProvider);
+        return platform;
+    }
+
+    private Result replayMessages(Path file, UUID sourceId) throws IOException {
+        int messages = 0;
+        int changes = 0;
+        Region lastSelection = null;
+        Map<UUID, Region> lastMulti = playerData.getMultiRegions();
+
+        try (CUITraceReader reader = new CUITraceReader(file)) {
+            while (reader.next()) {
+                if (sourceId == null) {
+                    sourceId = reader.getPlayerId();
+                } else if (!sourceId.equals(reader.getPlayerId())) {
+                    continue;
+                }
+
+                playerData.getDispatcher().dispatch(reader.getData());
+                messages++;
+
+                // 選區以不可變快照發佈，參照改變就代表選區改變
+                Region selection = playerData.getSelection();
+                Map<UUID, Region> multi = playerData.getMultiRegions();
+                if (selection == lastSelection && multi == lastMulti) {
+                    continue;
+                }
+                lastSelection = selection;
+                lastMulti = multi;
+
+                render(selection, multi);
+                changes++;
+            }
+        }
+        return new Result(messages, changes, sink.packets, sink.bytes, new TreeMap<>(sink.packetsByType));
+    }
+
+    /**
+     * 與伺服器相同，主選區與多選區的所有封包包在一個 Bundle 中，移除封包在最後發送
+     */
+    private void render(Region selection, Map<UUID, Region> multi) {
+        EntityDestroyBatch batch = new EntityDestroyBatch();
+        PacketBundle bundle = new PacketBundle(player, true);
+        bundle.open();
+        try {
+            Iterator<Map.Entry<UUID, RegionRenderer<?>>> it = renderers.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<UUID, RegionRenderer<?>> entry = it.next();
+                Region region = entry.getKey() == null ? selection : multi.get(entry.getKey());
+                if (region == null || !entry.getValue().getRegionType().equals(region.getClass())) {
+                    entry.getValue().clear(batch);
+                    it.remove();
+                }
+            }
+
+            if (selection != null) {
+                render(null, selection, batch, bundle);
+            }
+            for (Map.Entry<UUID, Region> entry : multi.entrySet()) {
+                render(entry.getKey(), entry.getValue(), batch, bundle);
+            }
+            batch.flush();
+        } finally {
+            bundle.close();
+        }
+    }
+
+    private void render(UUID id, Region region, EntityDestroyBatch batch, PacketBundle bundle) {
+        RegionRenderer<?> renderer = renderers.get(id);
+        if (renderer == null) {
+            RendererFactory<?> factory = rendererFactories.get(region.getClass());
+            if (factory == null) {
+                return;
+            }
+            renderer = factory.create(plugin, player, settings);
+            renderers.put(id, renderer);
+        }
+        renderTyped(renderer, region, batch, bundle);
+    }
+
+    private static <T extends Region> void renderTyped(RegionRenderer<T> renderer, Region region,
+                                                       EntityDestroyBatch batch, PacketBundle bundle) {
+        renderer.render(renderer.getRegionType().cast(region), batch, bundle);
+    }
+
+    /**
+     * 記錄用的封包接收端，以伺服器版本編碼每個封包並計算位元組
+     */
+    private static final class PacketSink {
+        private final ByteBuf buffer = Unpooled.buffer();
+        private final Map<String, Long> packetsByType = new HashMap<>();
+        private long packets;
+        private long bytes;
+
+        void record(PacketWrapper<?> packet) {
+            buffer.clear();
+            packet.setBuffer(buffer);
+            packet.write();
+
+            packets++;
+            bytes += varIntSize(packet.getPacketId()) + buffer.readableBytes();
+            packetsByType.merge(packet.getClass().getSimpleName(), 1L, Long::sum);
+        }
+
+        private static int varIntSize(int value) {
+            int size = 1;
+            while ((value & ~0x7F) != 0) {
+                value >>>= 7;
+                size++;
+            }
+            return size;
+        }
+    }
+
+    /**
+     * 重播結果
+     *
+     * @param messages 重播的訊息數量
+     * @param selectionChanges 改變選區的訊息數量(每次都會渲染)
+     * @param packets 發送的封包數量(包含 Bundle 分隔封包)
+     * @param bytes 封包編碼後的位元組
+     * @param packetsByType 各封包類型的數量
+     */
+    public record Result(int messages, int selectionChanges, long packets, long bytes,
+                         Map<String, Long> packetsByType) {
+
+        public double bytesPerSelectionChange() {
+            return selectionChanges == 0 ? 0.0 : (double) bytes / selectionChanges;
+        }
+
+        public double packetsPerSelectionChange() {
+            return selectionChanges == 0 ? 0.0 : (double) packets / selectionChanges;
+        }
+
+        public String format() {
+            StringBuilder out = new StringBuilder();
+            out.append(String.format("messages: %d, selection changes: %d%n", messages, selectionChanges));
+            out.append(String.format("packets: %d (%.1f per change)%n", packets, packetsPerSelectionChange()));
+            out.append(String.format("bytes: %d (%.1f per change)%n", bytes, bytesPerSelectionChange()));
+            packetsByType.forEach((type, count) -> out.append(String.format("  %s: %d%n", type, count)));
+            return out.toString();
+        }
+    }
+}